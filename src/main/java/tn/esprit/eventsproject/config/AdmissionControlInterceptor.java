@@ -0,0 +1,96 @@
+package tn.esprit.eventsproject.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admits a request only if both its endpoint limiter and the shared limiter have room; otherwise answers
+ * 503 with Retry-After straight away. Reads (GET) may use the whole shared limit, writes only writeShare of it.
+ */
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+    private static final String ALL = "all";
+    private static final String START = AdmissionControlInterceptor.class.getName() + ".start";
+    private static final String LIMITER = AdmissionControlInterceptor.class.getName() + ".limiter";
+
+    private final AdmissionControlProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final AdmissionLimiter shared;
+    private final ConcurrentMap<String, AdmissionLimiter> limiters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> rejections = new ConcurrentHashMap<>();
+
+    public AdmissionControlInterceptor(AdmissionControlProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.shared = limiter(ALL);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String endpoint = endpoint(request);
+        double share = "GET".equals(request.getMethod()) ? 1.0 : properties.getWriteShare();
+        AdmissionLimiter limiter = limiters.computeIfAbsent(endpoint, this::limiter);
+        if (!shared.tryAcquire(share)) {
+            return reject(endpoint, response);
+        }
+        if (!limiter.tryAcquire(1.0)) {
+            shared.cancel();
+            return reject(endpoint, response);
+        }
+        request.setAttribute(START, System.nanoTime());
+        request.setAttribute(LIMITER, limiter);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object start = request.getAttribute(START);
+        Object limiter = request.getAttribute(LIMITER);
+        if (start == null || limiter == null) {
+            return;
+        }
+        long latency = System.nanoTime() - (Long) start;
+        ((AdmissionLimiter) limiter).release(latency);
+        shared.release(latency);
+    }
+
+    private boolean reject(String endpoint, HttpServletResponse response) {
+        rejections.computeIfAbsent(endpoint, e -> Counter.builder("admission.rejected")
+                .description("Requests shed with 503 because the concurrency limit was reached")
+                .tag("endpoint", e)
+                .register(meterRegistry)).increment();
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(properties.getRetryAfterSeconds()));
+        return false;
+    }
+
+    private AdmissionLimiter limiter(String endpoint) {
+        AdmissionLimiter limiter = new AdmissionLimiter(properties.getInitialLimit(), properties.getMinLimit(),
+                properties.getMaxLimit(), TimeUnit.MILLISECONDS.toNanos(properties.getTargetLatencyMs()),
+                properties.getBackoffRatio());
+        Gauge.builder("admission.limit", limiter, AdmissionLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        Gauge.builder("admission.inflight", limiter, AdmissionLimiter::getInFlight)
+                .description("Requests currently admitted")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern == null ? request.getRequestURI() : pattern.toString());
+    }
+}
@@ -0,0 +1,21 @@
+package tn.esprit.eventsproject.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "admission")
+public class AdmissionControlProperties {
+    private boolean enabled = true;
+    private int initialLimit = 20;
+    private int minLimit = 2;
+    private int maxLimit = 200;
+    // Responses slower than this shrink the limit, faster ones let it grow
+    private long targetLatencyMs = 250;
+    private double backoffRatio = 0.9;
+    // Heavy writes may only fill this share of the shared limit, keeping the rest for reads
+    private double writeShare = 0.6;
+    private int retryAfterSeconds = 1;
+}
@@ -0,0 +1,57 @@
+package tn.esprit.eventsproject.config;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.esprit.eventsproject.entities.ChangeType;
+import tn.esprit.eventsproject.entities.Event;
+import tn.esprit.eventsproject.entities.Logistics;
+import tn.esprit.eventsproject.entities.Participant;
+import tn.esprit.eventsproject.services.IChangeFeedServices;
+
+// Appends a change feed record in the same transaction as each write of EventServicesImpl,
+// so a change is in the feed if and only if it was committed
+@RequiredArgsConstructor
+@Aspect
+@Component
+public class ChangeFeedAspect {
+    private final IChangeFeedServices changeFeedServices;
+    private final TransactionTemplate transactionTemplate;
+
+    @Around("execution(* tn.esprit.eventsproject.services.EventServicesImpl.add*(..))")
+    public Object recordChange(ProceedingJoinPoint joinPoint) {
+        // Joins the caller's transaction when there is one
+        return transactionTemplate.execute(status -> {
+            Object result = proceed(joinPoint);
+            record(result);
+            return result;
+        });
+    }
+
+    private void record(Object result) {
+        if (result instanceof Participant) {
+            Participant participant = (Participant) result;
+            changeFeedServices.record(ChangeType.PARTICIPANT_ADDED, participant.getIdPart(),
+                    participant.getNom() + " " + participant.getPrenom());
+        } else if (result instanceof Event) {
+            Event event = (Event) result;
+            changeFeedServices.record(ChangeType.EVENT_ADDED, event.getIdEvent(), event.getDescription());
+        } else if (result instanceof Logistics) {
+            Logistics logistics = (Logistics) result;
+            changeFeedServices.record(ChangeType.LOGISTICS_ADDED, logistics.getIdLog(), logistics.getDescription());
+        }
+    }
+
+    private static Object proceed(ProceedingJoinPoint joinPoint) {
+        try {
+            return joinPoint.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package tn.esprit.eventsproject.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Wraps each pooled DataSource bean so every connection checkout is timed as {@code datasource.connection.acquire},
+ * tagged with the endpoint pattern of the request that asked for it ("background" outside a request) and the
+ * bean name. Pool-wide figures stay available as the hikaricp.* actuator metrics. Checkouts made while the
+ * context starts are not timed: asking for the MeterRegistry then would create it, and its DataSource
+ * metrics binders, from inside a DataSource bean still being built.
+ */
+@Component
+public class ConnectionAcquireTimingPostProcessor implements BeanPostProcessor, SmartInitializingSingleton {
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+    private volatile MeterRegistry meterRegistry;
+
+    public ConnectionAcquireTimingPostProcessor(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.meterRegistryProvider = meterRegistryProvider;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        meterRegistry = meterRegistryProvider.getIfAvailable();
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        // The lazy proxy and the router only hand out handles; the pools behind them are timed as beans of their own
+        if (bean instanceof DataSource && !(bean instanceof TimedDataSource) && !(bean instanceof AbstractRoutingDataSource)
+                && !(bean instanceof LazyConnectionDataSourceProxy)) {
+            return new TimedDataSource((DataSource) bean, beanName, () -> meterRegistry);
+        }
+        return bean;
+    }
+
+    static class TimedDataSource extends DelegatingDataSource implements AutoCloseable {
+        private final String name;
+        private final Supplier<MeterRegistry> meterRegistry;
+
+        TimedDataSource(DataSource target, String name, Supplier<MeterRegistry> meterRegistry) {
+            super(target);
+            this.name = name;
+            this.meterRegistry = meterRegistry;
+        }
+
+        // The wrapper is what the context destroys, so it has to close the pool it stands for
+        @Override
+        public void close() throws Exception {
+            if (getTargetDataSource() instanceof AutoCloseable) {
+                ((AutoCloseable) getTargetDataSource()).close();
+            }
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            long start = System.nanoTime();
+            try {
+                return super.getConnection();
+            } finally {
+                record(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            long start = System.nanoTime();
+            try {
+                return super.getConnection(username, password);
+            } finally {
+                record(System.nanoTime() - start);
+            }
+        }
+
+        private void record(long nanos) {
+            MeterRegistry registry = meterRegistry.get();
+            if (registry == null) {
+                return;
+            }
+            Timer.builder("datasource.connection.acquire")
+                    .description("Time spent waiting for a pooled JDBC connection")
+                    .tag("uri", currentEndpoint())
+                    .tag("datasource", name)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        private static String currentEndpoint() {
+            RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+            if (attributes == null) {
+                return "background";
+            }
+            Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                    RequestAttributes.SCOPE_REQUEST);
+            return pattern == null ? "unmapped" : pattern.toString();
+        }
+    }
+}
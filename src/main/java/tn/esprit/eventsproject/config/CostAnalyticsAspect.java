@@ -0,0 +1,33 @@
+package tn.esprit.eventsproject.config;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import tn.esprit.eventsproject.entities.Event;
+import tn.esprit.eventsproject.entities.Logistics;
+import tn.esprit.eventsproject.services.IAnalyticsServices;
+
+// Keeps the cost analytics counters current with the writes of EventServicesImpl. Ordered outside the
+// change feed transaction, so only committed writes are counted
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+@Aspect
+@Component
+public class CostAnalyticsAspect {
+    private final IAnalyticsServices analyticsServices;
+
+    @AfterReturning(pointcut = "execution(* tn.esprit.eventsproject.services.EventServicesImpl.addAffectEvenParticipant(..))",
+            returning = "event")
+    public void eventAdded(Event event) {
+        analyticsServices.recordEvent(event);
+    }
+
+    @AfterReturning(pointcut = "execution(* tn.esprit.eventsproject.services.EventServicesImpl.addAffectLog(..)) && args(*, descriptionEvent)",
+            returning = "logistics", argNames = "descriptionEvent,logistics")
+    public void logisticsAdded(String descriptionEvent, Logistics logistics) {
+        analyticsServices.recordLogistics(logistics, descriptionEvent);
+    }
+}
@@ -0,0 +1,58 @@
+package tn.esprit.eventsproject.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * execution.mode=virtual hands every Tomcat request to its own virtual thread, so a request blocked on
+ * MySQL no longer holds an OS thread and in-flight requests are bounded by admission control and the
+ * connection pool instead of server.tomcat.threads.max. Needs a JDK 21+ runtime; the factory is looked up
+ * reflectively so the code still builds for Java 8.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "execution.mode", havingValue = "virtual")
+public class ExecutionModeConfig {
+
+    // Kept inside the customizer: an Executor bean would make Boot back off its applicationTaskExecutor
+    @Bean
+    public VirtualThreadProtocolHandlerCustomizer virtualThreadProtocolHandler() {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            log.info("Serving requests on virtual threads");
+            return new VirtualThreadProtocolHandlerCustomizer(executor);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("execution.mode=virtual needs a JDK 21 or later runtime, running on "
+                    + System.getProperty("java.version"), e);
+        }
+    }
+
+    public static class VirtualThreadProtocolHandlerCustomizer
+            implements TomcatProtocolHandlerCustomizer<ProtocolHandler>, DisposableBean {
+        private final ExecutorService executor;
+
+        VirtualThreadProtocolHandlerCustomizer(ExecutorService executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public void customize(ProtocolHandler protocolHandler) {
+            protocolHandler.setExecutor(executor);
+        }
+
+        // Tomcat leaves an executor it was handed to its owner
+        @Override
+        public void destroy() {
+            executor.shutdown();
+        }
+    }
+}
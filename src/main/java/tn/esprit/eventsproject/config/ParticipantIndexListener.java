@@ -0,0 +1,49 @@
+package tn.esprit.eventsproject.config;
+
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tn.esprit.eventsproject.entities.Participant;
+import tn.esprit.eventsproject.services.IParticipantSearchServices;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+// JPA listener keeping the participant search index in step with every ParticipantRepository write
+@Component
+public class ParticipantIndexListener {
+    private final IParticipantSearchServices participantSearchServices;
+
+    // Lazy: Hibernate asks for this listener while the EntityManagerFactory is still being built
+    public ParticipantIndexListener(@Lazy IParticipantSearchServices participantSearchServices) {
+        this.participantSearchServices = participantSearchServices;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void saved(Participant participant) {
+        afterCommit(() -> participantSearchServices.index(participant));
+    }
+
+    @PostRemove
+    public void removed(Participant participant) {
+        int idPart = participant.getIdPart();
+        afterCommit(() -> participantSearchServices.remove(idPart));
+    }
+
+    // A rolled back write must not become searchable
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+}
@@ -10,7 +10,7 @@ import org.springframework.stereotype.Component;
 @Aspect
 @Component
 public class PerformanceAspect {
-    @Around("execution(* tn.esprit.eventsproject.services.*.*(..))")
+    @Around("execution(* tn.esprit.eventsproject.services.EventServicesImpl.*(..))")
     public Object profile(ProceedingJoinPoint pjp) throws Throwable {
         long start = System.currentTimeMillis();
         Object obj = pjp.proceed();
@@ -0,0 +1,13 @@
+package tn.esprit.eventsproject.config;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a read-only service method whose queries may be served by a replica when routing is enabled.
+ * Reads needing the caller's own just-committed writes should stay unmarked.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReplicaRead {
+}
@@ -0,0 +1,24 @@
+package tn.esprit.eventsproject.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Runs outside the transaction advice so the flag is set before any connection is requested
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Aspect
+@Component
+public class ReplicaReadAspect {
+    @Around("@annotation(tn.esprit.eventsproject.config.ReplicaRead)")
+    public Object routeToReplica(ProceedingJoinPoint pjp) throws Throwable {
+        boolean previous = RoutingDataSource.setReplicaRead(true);
+        try {
+            return pjp.proceed();
+        } finally {
+            RoutingDataSource.setReplicaRead(previous);
+        }
+    }
+}
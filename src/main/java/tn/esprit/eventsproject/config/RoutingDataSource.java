@@ -0,0 +1,176 @@
+package tn.esprit.eventsproject.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections to the primary, except inside a {@link ReplicaRead} call where a replica within the
+ * lag tolerance is picked round-robin. With no eligible replica the read falls back to the primary.
+ * Meters are bound after construction: the metrics binders depend on every DataSource, so a DataSource
+ * must not depend on the MeterRegistry.
+ */
+public class RoutingDataSource extends AbstractRoutingDataSource implements MeterBinder {
+    public static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+
+    private final Map<String, DataSource> replicas = new LinkedHashMap<>();
+    private final List<String> replicaKeys = new ArrayList<>();
+    private final Map<String, TimedTarget> timedTargets = new LinkedHashMap<>();
+    // Last measured lag in seconds; absent or NaN means unknown or broken replication
+    private final Map<String, Double> lags = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final long maxLagSeconds;
+    private final Map<String, Counter> decisions = new ConcurrentHashMap<>();
+    private volatile Counter fallbacks;
+
+    public RoutingDataSource(DataSource primary, List<DataSource> replicaDataSources, long maxLagSeconds) {
+        this.maxLagSeconds = maxLagSeconds;
+        timedTargets.put(PRIMARY, new TimedTarget(primary));
+        for (int i = 0; i < replicaDataSources.size(); i++) {
+            String key = "replica-" + i;
+            replicas.put(key, replicaDataSources.get(i));
+            replicaKeys.add(key);
+            timedTargets.put(key, new TimedTarget(replicaDataSources.get(i)));
+        }
+        setTargetDataSources(new HashMap<Object, Object>(timedTargets));
+        setDefaultTargetDataSource(timedTargets.get(PRIMARY));
+        afterPropertiesSet();
+    }
+
+    public RoutingDataSource(DataSource primary, List<DataSource> replicaDataSources, long maxLagSeconds,
+                             MeterRegistry registry) {
+        this(primary, replicaDataSources, maxLagSeconds);
+        bindTo(registry);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Map.Entry<String, TimedTarget> target : timedTargets.entrySet()) {
+            String key = target.getKey();
+            target.getValue().bindTo(registry, key);
+            decisions.put(key, Counter.builder("datasource.routing.decisions")
+                    .description("Connections handed out per routing target")
+                    .tag("target", key)
+                    .register(registry));
+        }
+        for (String key : replicaKeys) {
+            Gauge.builder("datasource.routing.replica.lag", lags, l -> l.getOrDefault(key, Double.NaN))
+                    .description("Last measured replication lag in seconds")
+                    .baseUnit("seconds")
+                    .tag("target", key)
+                    .register(registry);
+        }
+        fallbacks = Counter.builder("datasource.routing.fallbacks")
+                .description("Replica reads sent to the primary because no replica was within the lag tolerance")
+                .register(registry);
+    }
+
+    public static boolean isReplicaRead() {
+        return Boolean.TRUE.equals(REPLICA_READ.get());
+    }
+
+    /**
+     * Sets the replica-read flag for the current thread and returns the previous value, to be restored afterwards.
+     */
+    public static boolean setReplicaRead(boolean replicaRead) {
+        boolean previous = isReplicaRead();
+        if (replicaRead) {
+            REPLICA_READ.set(Boolean.TRUE);
+        } else {
+            REPLICA_READ.remove();
+        }
+        return previous;
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return Collections.unmodifiableMap(replicas);
+    }
+
+    public void updateLag(String key, Double lagSeconds) {
+        lags.put(key, lagSeconds == null ? Double.NaN : lagSeconds);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String key = isReplicaRead() ? pickReplica() : PRIMARY;
+        Counter decision = decisions.get(key);
+        if (decision != null) {
+            decision.increment();
+        }
+        return key;
+    }
+
+    private String pickReplica() {
+        int size = replicaKeys.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            String key = replicaKeys.get((start + i) % size);
+            Double lag = lags.get(key);
+            if (lag != null && !lag.isNaN() && lag <= maxLagSeconds) {
+                return key;
+            }
+        }
+        Counter fallback = fallbacks;
+        if (fallback != null) {
+            fallback.increment();
+        }
+        return PRIMARY;
+    }
+
+    private static class TimedTarget extends DelegatingDataSource {
+        private volatile Timer acquire;
+
+        TimedTarget(DataSource target) {
+            super(target);
+        }
+
+        void bindTo(MeterRegistry registry, String key) {
+            acquire = Timer.builder("datasource.routing.acquire")
+                    .description("Connection acquire latency per routing target")
+                    .tag("target", key)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            long start = System.nanoTime();
+            try {
+                return super.getConnection();
+            } finally {
+                record(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            long start = System.nanoTime();
+            try {
+                return super.getConnection(username, password);
+            } finally {
+                record(System.nanoTime() - start);
+            }
+        }
+
+        private void record(long nanos) {
+            Timer timer = acquire;
+            if (timer != null) {
+                timer.record(nanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
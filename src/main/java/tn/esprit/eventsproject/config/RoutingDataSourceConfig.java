@@ -0,0 +1,168 @@
+package tn.esprit.eventsproject.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.ImportBeanDefinitionRegistrar;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured DataSource with a primary/replica router when datasource.routing.enabled=true.
+ * Every pool takes the spring.datasource.hikari.* settings; replicas only override url and credentials.
+ * Each pool is a bean of its own, so it is closed on shutdown, publishes the hikaricp.* metrics and has its
+ * checkouts timed per endpoint; the router and the lazy proxy in front only pick one.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(RoutingDataSourceProperties.class)
+@Import(RoutingDataSourceConfig.ReplicaPoolRegistrar.class)
+public class RoutingDataSourceConfig {
+    private final RoutingDataSourceProperties routingProperties;
+
+    public RoutingDataSourceConfig(RoutingDataSourceProperties routingProperties) {
+        this.routingProperties = routingProperties;
+    }
+
+    @Bean(destroyMethod = "close")
+    public DataSource primaryDataSource(DataSourceProperties dataSourceProperties, Environment environment) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        configurePool(primary, environment, RoutingDataSource.PRIMARY);
+        return primary;
+    }
+
+    // Also a MeterBinder, so Boot binds its routing meters once the registry exists
+    @Bean
+    public RoutingDataSource routingDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                               ListableBeanFactory beanFactory) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < routingProperties.getReplicas().size(); i++) {
+            replicas.add(beanFactory.getBean(ReplicaPoolRegistrar.beanName(i), DataSource.class));
+        }
+        return new RoutingDataSource(primaryDataSource, replicas, routingProperties.getMaxLagSeconds());
+    }
+
+    // The lazy proxy defers target selection until the first statement, after the replica flag is set
+    @Primary
+    @Bean
+    public DataSource dataSource(RoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(RoutingDataSource routingDataSource) {
+        return new ReplicaLagMonitor(routingDataSource, routingProperties);
+    }
+
+    private static void configurePool(HikariDataSource pool, Environment environment, String key) {
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName("events-" + key);
+    }
+
+    /**
+     * Registers one replicaDataSource{i} bean per configured replica; the count is only known from the properties.
+     */
+    static class ReplicaPoolRegistrar implements ImportBeanDefinitionRegistrar, EnvironmentAware, BeanFactoryAware {
+        private Environment environment;
+        private BeanFactory beanFactory;
+
+        static String beanName(int index) {
+            return "replicaDataSource" + index;
+        }
+
+        @Override
+        public void setEnvironment(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public void setBeanFactory(BeanFactory beanFactory) {
+            this.beanFactory = beanFactory;
+        }
+
+        @Override
+        public void registerBeanDefinitions(AnnotationMetadata metadata, BeanDefinitionRegistry registry) {
+            List<RoutingDataSourceProperties.Replica> replicas = Binder.get(environment)
+                    .bind("datasource.routing.replicas", Bindable.listOf(RoutingDataSourceProperties.Replica.class))
+                    .orElse(Collections.<RoutingDataSourceProperties.Replica>emptyList());
+            for (int i = 0; i < replicas.size(); i++) {
+                RoutingDataSourceProperties.Replica replica = replicas.get(i);
+                String key = "replica-" + i;
+                registry.registerBeanDefinition(beanName(i), BeanDefinitionBuilder
+                        .genericBeanDefinition(DataSource.class, () -> replicaPool(replica, key))
+                        .setDestroyMethodName("close")
+                        .getBeanDefinition());
+            }
+        }
+
+        private DataSource replicaPool(RoutingDataSourceProperties.Replica replica, String key) {
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(beanFactory.getBean(DataSourceProperties.class).determineDriverClassName())
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .build();
+            configurePool(pool, environment, key);
+            return pool;
+        }
+    }
+
+    public static class ReplicaLagMonitor {
+        private final RoutingDataSource routingDataSource;
+        private final RoutingDataSourceProperties routingProperties;
+
+        ReplicaLagMonitor(RoutingDataSource routingDataSource, RoutingDataSourceProperties routingProperties) {
+            this.routingDataSource = routingDataSource;
+            this.routingProperties = routingProperties;
+        }
+
+        @Scheduled(fixedDelayString = "${datasource.routing.lag-check-ms:2000}")
+        public void checkLag() {
+            for (Map.Entry<String, DataSource> replica : routingDataSource.getReplicas().entrySet()) {
+                routingDataSource.updateLag(replica.getKey(), measure(replica.getKey(), replica.getValue()));
+            }
+        }
+
+        private Double measure(String key, DataSource replica) {
+            try {
+                return new JdbcTemplate(replica).query(routingProperties.getLagQuery(), rs -> {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    Object lag = rs.getObject(routingProperties.getLagColumn());
+                    return lag == null ? null : Double.valueOf(lag.toString());
+                });
+            } catch (RuntimeException e) {
+                log.warn("Lag check failed on " + key + ": " + e.getMessage());
+                return null;
+            }
+        }
+    }
+}
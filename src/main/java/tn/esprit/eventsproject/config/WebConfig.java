@@ -0,0 +1,27 @@
+package tn.esprit.eventsproject.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@EnableConfigurationProperties(AdmissionControlProperties.class)
+public class WebConfig implements WebMvcConfigurer {
+    private final AdmissionControlProperties admissionControlProperties;
+    private final MeterRegistry meterRegistry;
+
+    public WebConfig(AdmissionControlProperties admissionControlProperties, MeterRegistry meterRegistry) {
+        this.admissionControlProperties = admissionControlProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (admissionControlProperties.isEnabled()) {
+            registry.addInterceptor(new AdmissionControlInterceptor(admissionControlProperties, meterRegistry))
+                    .addPathPatterns("/event/**");
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package tn.esprit.eventsproject.controllers;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+import tn.esprit.eventsproject.dto.CostBucketDTO;
+import tn.esprit.eventsproject.dto.Granularity;
+import tn.esprit.eventsproject.entities.Tache;
+import tn.esprit.eventsproject.services.IAnalyticsServices;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RequiredArgsConstructor
+@RequestMapping("analytics")
+@RestController
+public class AnalyticsRestController {
+    private final IAnalyticsServices analyticsServices;
+
+    @GetMapping("/costs/{d1}/{d2}")
+    public List<CostBucketDTO> getCosts(@PathVariable("d1") LocalDate dateDebut, @PathVariable("d2") LocalDate dateFin,
+                                        @RequestParam(value = "granularity", defaultValue = "WEEK") Granularity granularity,
+                                        @RequestParam(value = "tache", required = false) Tache tache){
+        return analyticsServices.rollup(dateDebut, dateFin, granularity, tache);
+    }
+    @GetMapping("/costs/total/{d1}/{d2}")
+    public CostBucketDTO getTotal(@PathVariable("d1") LocalDate dateDebut, @PathVariable("d2") LocalDate dateFin,
+                                  @RequestParam(value = "tache", required = false) Tache tache){
+        return analyticsServices.total(dateDebut, dateFin, tache);
+    }
+    @PostMapping("/rebuild")
+    public void rebuild(){
+        analyticsServices.rebuild();
+    }
+}
@@ -0,0 +1,23 @@
+package tn.esprit.eventsproject.controllers;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import tn.esprit.eventsproject.entities.ChangeRecord;
+import tn.esprit.eventsproject.services.IChangeFeedServices;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+@RequestMapping("feed")
+@RestController
+public class ChangeFeedRestController {
+    private final IChangeFeedServices changeFeedServices;
+
+    // Long-poll: answers as soon as records after the offset exist, or with an empty list on timeout
+    @GetMapping("/{offset}")
+    public DeferredResult<List<ChangeRecord>> tail(@PathVariable("offset") long offset,
+                                                   @RequestParam(value = "limit", defaultValue = "100") int limit){
+        return changeFeedServices.poll(offset, limit);
+    }
+}
@@ -8,7 +8,9 @@ import tn.esprit.eventsproject.dto.ParticipantDTO;
 import tn.esprit.eventsproject.entities.Event;
 import tn.esprit.eventsproject.entities.Logistics;
 import tn.esprit.eventsproject.entities.Participant;
+import tn.esprit.eventsproject.services.IArchiveServices;
 import tn.esprit.eventsproject.services.IEventServices;
+import tn.esprit.eventsproject.services.IIdempotencyServices;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -17,26 +19,36 @@ import java.util.List;
 @RequestMapping("event")
 @RestController
 public class EventRestController {
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final IEventServices eventServices;
+    private final IIdempotencyServices idempotencyServices;
+    private final IArchiveServices archiveServices;
 
     @PostMapping("/addPart")
     public Participant addParticipant(@RequestBody ParticipantDTO participant){
         return eventServices.addParticipant(participant);
     }
     @PostMapping("/addEvent/{id}")
-    public Event addEventPart(@RequestBody EventDTO event, @PathVariable("id") int idPart){
-        return eventServices.addAffectEvenParticipant(event,idPart);
+    public Event addEventPart(@RequestBody EventDTO event, @PathVariable("id") int idPart,
+                              @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey){
+        return idempotencyServices.execute(idempotencyKey, "addEvent/" + idPart, event, Event.class,
+                () -> eventServices.addAffectEvenParticipant(event,idPart));
     }
     @PostMapping("/addEvent")
-    public Event addEvent(@RequestBody EventDTO event){
-        return eventServices.addAffectEvenParticipant(event);
+    public Event addEvent(@RequestBody EventDTO event,
+                          @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey){
+        return idempotencyServices.execute(idempotencyKey, "addEvent", event, Event.class,
+                () -> eventServices.addAffectEvenParticipant(event));
     }
     @PutMapping("/addAffectLog/{description}")
-    public Logistics addAffectLog(@RequestBody LogisticsDTO logistics, @PathVariable("description") String descriptionEvent){
-        return eventServices.addAffectLog(logistics,descriptionEvent);
+    public Logistics addAffectLog(@RequestBody LogisticsDTO logistics, @PathVariable("description") String descriptionEvent,
+                                  @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey){
+        return idempotencyServices.execute(idempotencyKey, "addAffectLog/" + descriptionEvent, logistics, Logistics.class,
+                () -> eventServices.addAffectLog(logistics,descriptionEvent));
     }
     @GetMapping("/getLogs/{d1}/{d2}")
     public List<Logistics> getLogistiquesDates (@PathVariable("d1") LocalDate dateDebut, @PathVariable("d2") LocalDate dateFin){
-        return eventServices.getLogisticsDates(dateDebut,dateFin);
+        return archiveServices.getLogisticsDates(dateDebut,dateFin);
     }
 }
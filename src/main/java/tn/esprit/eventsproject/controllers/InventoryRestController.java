@@ -0,0 +1,22 @@
+package tn.esprit.eventsproject.controllers;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+import tn.esprit.eventsproject.entities.InventoryItem;
+import tn.esprit.eventsproject.services.IInventoryServices;
+
+@RequiredArgsConstructor
+@RequestMapping("inventory")
+@RestController
+public class InventoryRestController {
+    private final IInventoryServices inventoryServices;
+
+    @GetMapping("/{description}")
+    public InventoryItem getItem(@PathVariable("description") String description){
+        return inventoryServices.getItem(description);
+    }
+    @PutMapping("/{description}/{capacite}")
+    public InventoryItem setCapacite(@PathVariable("description") String description, @PathVariable("capacite") long capacite){
+        return inventoryServices.setCapacite(description, capacite);
+    }
+}
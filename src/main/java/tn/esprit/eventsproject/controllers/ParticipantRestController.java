@@ -0,0 +1,28 @@
+package tn.esprit.eventsproject.controllers;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.web.bind.annotation.*;
+import tn.esprit.eventsproject.dto.ParticipantDTO;
+import tn.esprit.eventsproject.entities.Tache;
+import tn.esprit.eventsproject.services.IParticipantSearchServices;
+
+@RequiredArgsConstructor
+@RequestMapping("participant")
+@RestController
+public class ParticipantRestController {
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private final IParticipantSearchServices participantSearchServices;
+
+    // Case-insensitive prefix match on nom or prenom, optionally restricted to one Tache
+    @GetMapping("/search")
+    public Slice<ParticipantDTO> search(@RequestParam(value = "q", defaultValue = "") String prefix,
+                                       @RequestParam(value = "tache", required = false) Tache tache,
+                                       @RequestParam(value = "page", defaultValue = "0") int page,
+                                       @RequestParam(value = "size", defaultValue = "20") int size){
+        PageRequest pageable = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+        return participantSearchServices.search(prefix, tache, pageable);
+    }
+}
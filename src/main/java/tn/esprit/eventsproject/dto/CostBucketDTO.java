@@ -0,0 +1,17 @@
+package tn.esprit.eventsproject.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CostBucketDTO {
+    private LocalDate dateDebut;
+    private LocalDate dateFin;
+    private long quantite;
+    private double cout;
+    private long events;
+}
@@ -0,0 +1,5 @@
+package tn.esprit.eventsproject.dto;
+
+public enum Granularity {
+    DAY, WEEK
+}
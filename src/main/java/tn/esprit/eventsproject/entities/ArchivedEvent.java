@@ -0,0 +1,34 @@
+package tn.esprit.eventsproject.entities;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Set;
+
+// Event moved out of the hot tables; keeps the original id and a summary of what analytics needs
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(indexes = @Index(columnList = "dateDebut"))
+public class ArchivedEvent implements Serializable {
+    @Id
+    int idEvent;
+    String description;
+    LocalDate dateDebut;
+    LocalDate dateFin;
+    float cout;
+    long reservedQuantite;
+    double reservedCout;
+    @ElementCollection
+    Set<Integer> participantIds;
+    @ElementCollection
+    @Enumerated(EnumType.STRING)
+    Set<Tache> taches;
+
+}
@@ -0,0 +1,28 @@
+package tn.esprit.eventsproject.entities;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+// Logistics of an archived event; dateDebut is copied from the event so range reads need no join
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(indexes = @Index(columnList = "dateDebut"))
+public class ArchivedLogistics implements Serializable {
+    @Id
+    int idLog;
+    int idEvent;
+    String description;
+    boolean reserve;
+    float prixUnit;
+    int quantite;
+    LocalDate dateDebut;
+
+}
@@ -0,0 +1,27 @@
+package tn.esprit.eventsproject.entities;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+// One row of the append-only change feed; idChange is the offset consumers resume from
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+public class ChangeRecord implements Serializable {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    long idChange;
+    @Enumerated(EnumType.STRING)
+    ChangeType typeChange;
+    int idEntity;
+    String description;
+    LocalDateTime dateChange;
+
+}
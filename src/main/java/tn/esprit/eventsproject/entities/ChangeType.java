@@ -0,0 +1,5 @@
+package tn.esprit.eventsproject.entities;
+
+public enum ChangeType {
+    PARTICIPANT_ADDED, EVENT_ADDED, LOGISTICS_ADDED
+}
@@ -0,0 +1,28 @@
+package tn.esprit.eventsproject.entities;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+// Stored response of an idempotent write, keyed by endpoint scope and the client's Idempotency-Key
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+public class IdempotencyRecord implements Serializable {
+    @Id
+    String idempotencyKey;
+    // SHA-256 of the request the response belongs to
+    String requestHash;
+    @Lob
+    String response;
+    LocalDateTime dateCreation;
+
+}
@@ -0,0 +1,23 @@
+package tn.esprit.eventsproject.entities;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.io.Serializable;
+
+// Stock of one logistics item type, matched on Logistics.description; quantiteReservee is a periodic snapshot
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+public class InventoryItem implements Serializable {
+    @Id
+    String description;
+    long capacite;
+    long quantiteReservee;
+
+}
@@ -1,7 +1,9 @@
 package tn.esprit.eventsproject.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
+import tn.esprit.eventsproject.config.ParticipantIndexListener;
 
 import javax.persistence.*;
 import java.io.Serializable;
@@ -14,6 +16,7 @@ import java.util.Set;
 @NoArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @Entity
+@EntityListeners(ParticipantIndexListener.class)
 public class Participant implements Serializable {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -22,6 +25,8 @@ public class Participant implements Serializable {
     String prenom;
     @Enumerated(EnumType.STRING)
     Tache tache;
+    // Event lists its participants; serializing the way back as well never terminates
+    @JsonIgnore
     @ManyToMany
     private Set<Event> events;
 
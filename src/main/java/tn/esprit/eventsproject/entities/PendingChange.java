@@ -0,0 +1,27 @@
+package tn.esprit.eventsproject.entities;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+// Outbox row written with the business change; relayed into ChangeRecord, which assigns the feed offset
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+public class PendingChange implements Serializable {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    long idPending;
+    @Enumerated(EnumType.STRING)
+    ChangeType typeChange;
+    int idEntity;
+    String description;
+    LocalDateTime dateChange;
+
+}
@@ -0,0 +1,21 @@
+package tn.esprit.eventsproject.entities;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.io.Serializable;
+
+// One row per background relay; holding it FOR UPDATE makes that relay single-writer across every instance
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+public class RelayLock implements Serializable {
+    @Id
+    String name;
+
+}
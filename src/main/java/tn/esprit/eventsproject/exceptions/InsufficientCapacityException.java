@@ -0,0 +1,13 @@
+package tn.esprit.eventsproject.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class InsufficientCapacityException extends RuntimeException {
+    // Constructor that describes the refused reservation
+    public InsufficientCapacityException(String description, int quantite, long available) {
+        super("Cannot reserve " + quantite + " " + description + ", only " + Math.max(0, available) + " available");
+    }
+
+}
@@ -0,0 +1,13 @@
+package tn.esprit.eventsproject.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class RangeTooLargeException extends RuntimeException {
+    // Constructor that describes the refused range
+    public RangeTooLargeException(long buckets, int maxBuckets) {
+        super("Range would produce " + buckets + " buckets, at most " + maxBuckets + " are allowed; narrow it or use a coarser granularity");
+    }
+
+}
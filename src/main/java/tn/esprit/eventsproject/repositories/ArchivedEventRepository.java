@@ -0,0 +1,25 @@
+package tn.esprit.eventsproject.repositories;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import tn.esprit.eventsproject.entities.ArchivedEvent;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ArchivedEventRepository extends JpaRepository<ArchivedEvent, Integer> {
+
+    List<ArchivedEvent> findByDateDebutBetween(LocalDate date1, LocalDate date2);
+
+    // Rows of [idEvent, dateDebut, reservedQuantite, reservedCout] after the given id, in id order
+    @Query("select a.idEvent, a.dateDebut, a.reservedQuantite, a.reservedCout from ArchivedEvent a "
+            + "where a.idEvent > :after order by a.idEvent")
+    List<Object[]> findReservedTotalsAfter(@Param("after") int after, Pageable pageable);
+
+    // Rows of [idEvent, tache] for the archived events in the id range
+    @Query("select a.idEvent, t from ArchivedEvent a join a.taches t where a.idEvent between :from and :to")
+    List<Object[]> findTachesBetween(@Param("from") int from, @Param("to") int to);
+
+}
@@ -0,0 +1,13 @@
+package tn.esprit.eventsproject.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import tn.esprit.eventsproject.entities.ArchivedLogistics;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ArchivedLogisticsRepository extends JpaRepository<ArchivedLogistics, Integer> {
+
+    List<ArchivedLogistics> findByReserveTrueAndDateDebutBetween(LocalDate date1, LocalDate date2);
+
+}
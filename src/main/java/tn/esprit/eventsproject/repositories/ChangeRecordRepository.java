@@ -0,0 +1,13 @@
+package tn.esprit.eventsproject.repositories;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import tn.esprit.eventsproject.entities.ChangeRecord;
+
+import java.util.List;
+
+public interface ChangeRecordRepository extends JpaRepository<ChangeRecord, Long> {
+
+    List<ChangeRecord> findByIdChangeGreaterThanOrderByIdChangeAsc(long offset, Pageable pageable);
+
+}
@@ -1,18 +1,49 @@
 package tn.esprit.eventsproject.repositories;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import tn.esprit.eventsproject.entities.Event;
 import tn.esprit.eventsproject.entities.Tache;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface EventRepository extends JpaRepository<Event, Integer> {
 
     Event findByDescription(String description);
     List<Event> findByDateDebutBetween(LocalDate date1, LocalDate date2);
+    List<Event> findByDateFinBefore(LocalDate date, Pageable pageable);
 
     List<Event> findByParticipantsNomAndParticipantsPrenomAndParticipantsTache(String nom, String prenom, Tache tache);
 
+    // Rows of [idEvent, dateDebut, reserved quantite, reserved cout] after the given id, in id order
+    @Query("select e.idEvent, e.dateDebut, coalesce(sum(case when l.reserve = true then l.quantite else 0 end), 0), "
+            + "coalesce(sum(case when l.reserve = true then (cast(l.prixUnit as double) * l.quantite) else 0.0 end), 0.0) "
+            + "from Event e left join e.logistics l where e.idEvent > :after group by e.idEvent, e.dateDebut order by e.idEvent")
+    List<Object[]> findReservedTotalsAfter(@Param("after") int after, Pageable pageable);
+
+    // Rows of [idEvent, tache], once per role present among the participants of each event in the id range
+    @Query("select distinct e.idEvent, p.tache from Event e join e.participants p "
+            + "where e.idEvent between :from and :to and p.tache is not null")
+    List<Object[]> findTachesBetween(@Param("from") int from, @Param("to") int to);
+
+    @Query("select l.idLog from Event e join e.logistics l where e.idEvent between :from and :to")
+    List<Integer> findLogisticsIdsBetween(@Param("from") int from, @Param("to") int to);
+
+    // Rows of [idEvent, idPart, tache] for every participant linked to one of the given events
+    @Query("select e.idEvent, p.idPart, p.tache from Event e join e.participants p where e.idEvent in :ids")
+    List<Object[]> findParticipantsOf(@Param("ids") Collection<Integer> ids);
+
+    // Participant owns the link table; removing its rows directly spares loading each participant's events
+    @Modifying
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query(value = "delete from participant_events where events_id_event in (:ids)", nativeQuery = true)
+    int deleteParticipantLinks(@Param("ids") Collection<Integer> ids);
 
 }
\ No newline at end of file
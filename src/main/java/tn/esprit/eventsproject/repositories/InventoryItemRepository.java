@@ -0,0 +1,18 @@
+package tn.esprit.eventsproject.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import tn.esprit.eventsproject.entities.InventoryItem;
+
+public interface InventoryItemRepository extends JpaRepository<InventoryItem, String> {
+
+    // Touches only the snapshot column, so it never overwrites a concurrent capacity change
+    @Modifying
+    @Transactional
+    @Query("update InventoryItem i set i.quantiteReservee = :quantite where i.description = :description")
+    int updateQuantiteReservee(@Param("description") String description, @Param("quantite") long quantite);
+
+}
@@ -1,10 +1,20 @@
 package tn.esprit.eventsproject.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import tn.esprit.eventsproject.entities.Logistics;
 
+import java.util.List;
+
 
 public interface LogisticsRepository extends JpaRepository<Logistics, Integer> {
 
+    // Rows of [description, total reserved quantite]
+    @Query("select l.description, sum(l.quantite) from Logistics l where l.reserve = true group by l.description")
+    List<Object[]> sumReservedQuantiteByDescription();
+
+    @Query("select coalesce(sum(l.quantite), 0) from Logistics l where l.reserve = true and l.description = :description")
+    long sumReservedQuantite(@Param("description") String description);
 
-}
\ No newline at end of file
+}
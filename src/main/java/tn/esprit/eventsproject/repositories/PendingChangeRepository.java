@@ -0,0 +1,13 @@
+package tn.esprit.eventsproject.repositories;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import tn.esprit.eventsproject.entities.PendingChange;
+
+import java.util.List;
+
+public interface PendingChangeRepository extends JpaRepository<PendingChange, Long> {
+
+    List<PendingChange> findByOrderByIdPendingAsc(Pageable pageable);
+
+}
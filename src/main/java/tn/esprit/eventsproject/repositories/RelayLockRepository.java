@@ -0,0 +1,22 @@
+package tn.esprit.eventsproject.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tn.esprit.eventsproject.entities.RelayLock;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
+public interface RelayLockRepository extends JpaRepository<RelayLock, String> {
+
+    // SELECT ... FOR UPDATE: waits for whichever instance holds the row until its transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query("select r from RelayLock r where r.name = :name")
+    Optional<RelayLock> lock(@Param("name") String name);
+
+}
@@ -0,0 +1,264 @@
+package tn.esprit.eventsproject.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tn.esprit.eventsproject.dto.CostBucketDTO;
+import tn.esprit.eventsproject.dto.Granularity;
+import tn.esprit.eventsproject.entities.Event;
+import tn.esprit.eventsproject.entities.Logistics;
+import tn.esprit.eventsproject.entities.Participant;
+import tn.esprit.eventsproject.entities.Tache;
+import tn.esprit.eventsproject.exceptions.RangeTooLargeException;
+import tn.esprit.eventsproject.repositories.ArchivedEventRepository;
+import tn.esprit.eventsproject.repositories.EventRepository;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class AnalyticsServicesImpl implements IAnalyticsServices {
+
+    private static final int TOTAL = Tache.values().length;
+    private static final int REBUILD_PAGE = 500;
+
+    private final EventRepository eventRepository;
+    private final ArchivedEventRepository archivedEventRepository;
+
+    @Value("${analytics.max-buckets:1000}")
+    private int maxBuckets;
+
+    // Row per Tache, plus the TOTAL row for all roles together
+    private volatile CostBuckets buckets = new CostBuckets(TOTAL + 1);
+    // Guards the swap of buckets and the deltas recorded while a rebuild runs
+    private final Object lock = new Object();
+    private List<Delta> duringRebuild;
+
+    @Override
+    public void recordEvent(Event event) {
+        if (event != null && event.getDateDebut() != null) {
+            apply(fromEvent(event));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void recordLogistics(Logistics logistics, String descriptionEvent) {
+        if (logistics == null || !logistics.isReserve()) {
+            return;
+        }
+        Event event = eventRepository.findByDescription(descriptionEvent);
+        if (event == null || event.getDateDebut() == null) {
+            return;
+        }
+        long quantite = logistics.getQuantite();
+        double cout = (double) logistics.getPrixUnit() * logistics.getQuantite();
+        apply(new Delta(true, logistics.getIdLog(), event.getDateDebut(), roles(event), quantite, cout, 0));
+    }
+
+    /**
+     * Rebuilt into fresh buckets and swapped in, so readers never see a half-loaded state. Writes recorded
+     * meanwhile are replayed into the new buckets, except those for rows the rebuild already read itself.
+     * Reads aggregated rows a page at a time by id, never entities, so memory does not grow with the table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    @Override
+    public synchronized void rebuild() {
+        synchronized (lock) {
+            duringRebuild = new ArrayList<>();
+        }
+        try {
+            CostBuckets rebuilt = new CostBuckets(TOTAL + 1);
+            BitSet seenEvents = new BitSet();
+            BitSet seenLogistics = new BitSet();
+            long count = 0;
+            int after = 0;
+            while (true) {
+                List<Object[]> rows = eventRepository.findReservedTotalsAfter(after, PageRequest.of(0, REBUILD_PAGE));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                int from = (Integer) rows.get(0)[0];
+                after = (Integer) rows.get(rows.size() - 1)[0];
+                Map<Integer, Set<Tache>> roles = roles(eventRepository.findTachesBetween(from, after));
+                for (Integer idLog : eventRepository.findLogisticsIdsBetween(from, after)) {
+                    seenLogistics.set(idLog);
+                }
+                for (Object[] row : rows) {
+                    seenEvents.set((Integer) row[0]);
+                    add(rebuilt, fromRow(row, roles));
+                }
+                count += rows.size();
+            }
+            // Archived events keep their reserved totals and roles, so history survives a rebuild
+            after = 0;
+            while (true) {
+                List<Object[]> rows = archivedEventRepository.findReservedTotalsAfter(after, PageRequest.of(0, REBUILD_PAGE));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                int from = (Integer) rows.get(0)[0];
+                after = (Integer) rows.get(rows.size() - 1)[0];
+                Map<Integer, Set<Tache>> roles = roles(archivedEventRepository.findTachesBetween(from, after));
+                for (Object[] row : rows) {
+                    seenEvents.set((Integer) row[0]);
+                    add(rebuilt, fromRow(row, roles));
+                }
+                count += rows.size();
+            }
+            synchronized (lock) {
+                int replayed = 0;
+                for (Delta delta : duringRebuild) {
+                    if (!(delta.logistics ? seenLogistics : seenEvents).get(delta.id)) {
+                        add(rebuilt, delta);
+                        replayed++;
+                    }
+                }
+                buckets = rebuilt;
+                log.info("Cost analytics rebuilt from " + count + " events, " + replayed + " concurrent writes replayed");
+            }
+        } finally {
+            synchronized (lock) {
+                duringRebuild = null;
+            }
+        }
+    }
+
+    @Override
+    public List<CostBucketDTO> rollup(LocalDate dateDebut, LocalDate dateFin, Granularity granularity, Tache tache) {
+        List<CostBucketDTO> rollup = new ArrayList<>();
+        if (dateDebut == null || dateFin == null || dateFin.isBefore(dateDebut)) {
+            return rollup;
+        }
+        LocalDate start = granularity == Granularity.WEEK ? dateDebut.with(DayOfWeek.MONDAY) : dateDebut;
+        // Checked before building anything: a range of centuries by day would be millions of DTOs
+        long days = ChronoUnit.DAYS.between(start, dateFin) + 1;
+        long count = granularity == Granularity.WEEK ? (days + 6) / 7 : days;
+        if (count > maxBuckets) {
+            throw new RangeTooLargeException(count, maxBuckets);
+        }
+        CostBuckets current = buckets;
+        int row = tache == null ? TOTAL : tache.ordinal();
+        while (!start.isAfter(dateFin)) {
+            LocalDate end = granularity == Granularity.WEEK ? start.plusDays(6) : start;
+            rollup.add(toDTO(start, end, current.sum(row, start, end)));
+            start = end.plusDays(1);
+        }
+        return rollup;
+    }
+
+    @Override
+    public CostBucketDTO total(LocalDate dateDebut, LocalDate dateFin, Tache tache) {
+        if (dateDebut == null || dateFin == null || dateFin.isBefore(dateDebut)) {
+            return toDTO(dateDebut, dateFin, new double[3]);
+        }
+        int row = tache == null ? TOTAL : tache.ordinal();
+        return toDTO(dateDebut, dateFin, buckets.sum(row, dateDebut, dateFin));
+    }
+
+    private void apply(Delta delta) {
+        synchronized (lock) {
+            add(buckets, delta);
+            if (duringRebuild != null) {
+                duringRebuild.add(delta);
+            }
+        }
+    }
+
+    // Row of [idEvent, dateDebut, reserved quantite, reserved cout]
+    private static Delta fromRow(Object[] row, Map<Integer, Set<Tache>> roles) {
+        int idEvent = (Integer) row[0];
+        return new Delta(false, idEvent, (LocalDate) row[1], roles.get(idEvent),
+                ((Number) row[2]).longValue(), ((Number) row[3]).doubleValue(), 1);
+    }
+
+    private static Map<Integer, Set<Tache>> roles(List<Object[]> rows) {
+        Map<Integer, Set<Tache>> roles = new HashMap<>();
+        for (Object[] row : rows) {
+            roles.computeIfAbsent((Integer) row[0], id -> EnumSet.noneOf(Tache.class)).add((Tache) row[1]);
+        }
+        return roles;
+    }
+
+    private static Delta fromEvent(Event event) {
+        long quantite = 0;
+        double cout = 0;
+        if (event.getLogistics() != null) {
+            for (Logistics logistics : event.getLogistics()) {
+                if (logistics.isReserve()) {
+                    quantite += logistics.getQuantite();
+                    cout += (double) logistics.getPrixUnit() * logistics.getQuantite();
+                }
+            }
+        }
+        return new Delta(false, event.getIdEvent(), event.getDateDebut(), roles(event), quantite, cout, 1);
+    }
+
+    private static void add(CostBuckets target, Delta delta) {
+        if (delta.day == null) {
+            return;
+        }
+        if (!target.add(TOTAL, delta.day, delta.quantite, delta.cout, delta.events)) {
+            log.warn("Cost analytics ignores " + delta.day + ", outside the tracked window");
+            return;
+        }
+        for (Tache tache : delta.roles) {
+            target.add(tache.ordinal(), delta.day, delta.quantite, delta.cout, delta.events);
+        }
+    }
+
+    // Each role is counted once per event, however many participants share it
+    private static Set<Tache> roles(Event event) {
+        Set<Tache> roles = EnumSet.noneOf(Tache.class);
+        if (event.getParticipants() != null) {
+            for (Participant participant : event.getParticipants()) {
+                if (participant.getTache() != null) {
+                    roles.add(participant.getTache());
+                }
+            }
+        }
+        return roles;
+    }
+
+    private static CostBucketDTO toDTO(LocalDate dateDebut, LocalDate dateFin, double[] totals) {
+        return new CostBucketDTO(dateDebut, dateFin, (long) totals[0], totals[1], (long) totals[2]);
+    }
+
+    // One recorded write; id is the event's, or the logistics row's for a logistics delta
+    private static final class Delta {
+        private final boolean logistics;
+        private final int id;
+        private final LocalDate day;
+        private final Set<Tache> roles;
+        private final long quantite;
+        private final double cout;
+        private final long events;
+
+        private Delta(boolean logistics, int id, LocalDate day, Set<Tache> roles, long quantite, double cout, long events) {
+            this.logistics = logistics;
+            this.id = id;
+            this.day = day;
+            this.roles = roles == null ? EnumSet.noneOf(Tache.class) : roles;
+            this.quantite = quantite;
+            this.cout = cout;
+            this.events = events;
+        }
+    }
+
+}
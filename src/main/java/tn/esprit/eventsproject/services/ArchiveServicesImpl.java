@@ -0,0 +1,175 @@
+package tn.esprit.eventsproject.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.esprit.eventsproject.config.ReplicaRead;
+import tn.esprit.eventsproject.entities.*;
+import tn.esprit.eventsproject.repositories.ArchivedEventRepository;
+import tn.esprit.eventsproject.repositories.ArchivedLogisticsRepository;
+import tn.esprit.eventsproject.repositories.EventRepository;
+import tn.esprit.eventsproject.repositories.LogisticsRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Moves events whose dateFin is older than the retention window, with their logistics and participant
+ * links, into the archive tables. Each batch is its own transaction, so an interrupted run simply
+ * resumes with the events still left in the hot tables on the next one.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class ArchiveServicesImpl implements IArchiveServices {
+
+    private final EventRepository eventRepository;
+    private final LogisticsRepository logisticsRepository;
+    private final ArchivedEventRepository archivedEventRepository;
+    private final ArchivedLogisticsRepository archivedLogisticsRepository;
+    private final IEventServices eventServices;
+    private final TransactionTemplate transactionTemplate;
+    private final IInventoryServices inventoryServices;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${archive.retention-days:365}")
+    private int retentionDays;
+    @Value("${archive.batch-size:200}")
+    private int batchSize;
+    @Value("${archive.max-batches:500}")
+    private int maxBatches;
+    @Value("${archive.pause-ms:500}")
+    private long pauseMs;
+
+    @Scheduled(cron = "${archive.cron:0 0 3 * * *}")
+    @Override
+    public void archive() {
+        LocalDate cutoff = getArchiveHorizon();
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Integer moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            total += moved == null ? 0 : moved;
+            if (moved == null || moved < batchSize) {
+                break;
+            }
+            // Throttle so archiving never competes for long with live traffic
+            try {
+                Thread.sleep(pauseMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        log.info("Archived " + total + " events ending before " + cutoff);
+    }
+
+    // Must run inside a transaction: archive() provides one per batch
+    @Override
+    public int archiveBatch(LocalDate cutoff) {
+        List<Event> events = eventRepository.findByDateFinBefore(cutoff, PageRequest.of(0, batchSize, Sort.by("idEvent")));
+        if (events.isEmpty()) {
+            return 0;
+        }
+        List<Integer> eventIds = new ArrayList<>();
+        for (Event event : events) {
+            eventIds.add(event.getIdEvent());
+        }
+        // Participant ids and roles of the whole batch in one query, without loading any participant
+        Map<Integer, Set<Integer>> participantIds = new HashMap<>();
+        Map<Integer, Set<Tache>> taches = new HashMap<>();
+        for (Object[] row : eventRepository.findParticipantsOf(eventIds)) {
+            Integer idEvent = (Integer) row[0];
+            participantIds.computeIfAbsent(idEvent, id -> new HashSet<>()).add((Integer) row[1]);
+            if (row[2] != null) {
+                taches.computeIfAbsent(idEvent, id -> EnumSet.noneOf(Tache.class)).add((Tache) row[2]);
+            }
+        }
+        List<ArchivedEvent> archivedEvents = new ArrayList<>();
+        List<ArchivedLogistics> archivedLogistics = new ArrayList<>();
+        List<Logistics> logistics = new ArrayList<>();
+        for (Event event : events) {
+            long reservedQuantite = 0;
+            double reservedCout = 0;
+            Set<Logistics> logisticsSet = event.getLogistics() == null ? Collections.<Logistics>emptySet() : event.getLogistics();
+            for (Logistics item : logisticsSet) {
+                archivedLogistics.add(new ArchivedLogistics(item.getIdLog(), event.getIdEvent(), item.getDescription(),
+                        item.isReserve(), item.getPrixUnit(), item.getQuantite(), event.getDateDebut()));
+                if (item.isReserve()) {
+                    reservedQuantite += item.getQuantite();
+                    reservedCout += (double) item.getPrixUnit() * item.getQuantite();
+                }
+                logistics.add(item);
+            }
+            archivedEvents.add(new ArchivedEvent(event.getIdEvent(), event.getDescription(), event.getDateDebut(),
+                    event.getDateFin(), event.getCout(), reservedQuantite, reservedCout,
+                    participantIds.getOrDefault(event.getIdEvent(), new HashSet<>()),
+                    taches.getOrDefault(event.getIdEvent(), EnumSet.noneOf(Tache.class))));
+        }
+        // Archive ids are assigned from the hot rows: persist, never merge, so no lookup per row and a reused
+        // id fails the batch instead of overwriting what is already archived
+        for (ArchivedEvent archivedEvent : archivedEvents) {
+            entityManager.persist(archivedEvent);
+        }
+        for (ArchivedLogistics archivedItem : archivedLogistics) {
+            entityManager.persist(archivedItem);
+        }
+        eventRepository.deleteParticipantLinks(eventIds);
+        eventRepository.deleteAll(events);
+        logisticsRepository.deleteAll(logistics);
+        releaseAfterCommit(logistics);
+        return events.size();
+    }
+
+    // Archived reservations no longer hold stock, exactly as a reconcile from the hot tables would count them
+    private void releaseAfterCommit(List<Logistics> logistics) {
+        Map<String, Integer> reserved = new HashMap<>();
+        for (Logistics item : logistics) {
+            if (item.isReserve() && item.getDescription() != null) {
+                reserved.merge(item.getDescription(), item.getQuantite(), Integer::sum);
+            }
+        }
+        if (reserved.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (Map.Entry<String, Integer> entry : reserved.entrySet()) {
+                    inventoryServices.release(entry.getKey(), entry.getValue());
+                }
+            }
+        });
+    }
+
+    @Override
+    public LocalDate getArchiveHorizon() {
+        return LocalDate.now().minusDays(retentionDays);
+    }
+
+    // Archived events all start before the horizon, so the archive is only read when the range reaches back that far
+    @ReplicaRead
+    @Override
+    public List<Logistics> getLogisticsDates(LocalDate dateDebut, LocalDate dateFin) {
+        List<Logistics> logisticsList = eventServices.getLogisticsDates(dateDebut, dateFin);
+        if (dateDebut == null || dateFin == null || !dateDebut.isBefore(getArchiveHorizon())) {
+            return logisticsList;
+        }
+        List<Logistics> merged = new ArrayList<>(logisticsList);
+        for (ArchivedLogistics archived : archivedLogisticsRepository.findByReserveTrueAndDateDebutBetween(dateDebut, dateFin)) {
+            merged.add(new Logistics(archived.getIdLog(), archived.getDescription(), archived.isReserve(),
+                    archived.getPrixUnit(), archived.getQuantite()));
+        }
+        return merged;
+    }
+
+}
@@ -0,0 +1,163 @@
+package tn.esprit.eventsproject.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+import tn.esprit.eventsproject.entities.ChangeRecord;
+import tn.esprit.eventsproject.entities.ChangeType;
+import tn.esprit.eventsproject.entities.PendingChange;
+import tn.esprit.eventsproject.entities.RelayLock;
+import tn.esprit.eventsproject.repositories.ChangeRecordRepository;
+import tn.esprit.eventsproject.repositories.PendingChangeRepository;
+import tn.esprit.eventsproject.repositories.RelayLockRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class ChangeFeedServicesImpl implements IChangeFeedServices {
+    private static final String RELAY_LOCK = "change-feed";
+
+    private final ChangeRecordRepository changeRecordRepository;
+    private final PendingChangeRepository pendingChangeRepository;
+    private final RelayLockRepository relayLockRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Long-poll consumers parked until new records are relayed
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+    @Value("${feed.batch-size:500}")
+    private int batchSize;
+    @Value("${feed.poll-timeout-ms:30000}")
+    private long pollTimeout;
+    @Value("${feed.max-limit:1000}")
+    private int maxLimit;
+
+    // Outbox write: commits or rolls back together with the change it describes
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Override
+    public void record(ChangeType typeChange, int idEntity, String description) {
+        pendingChangeRepository.save(new PendingChange(0, typeChange, idEntity, description, LocalDateTime.now()));
+    }
+
+    // Only one relay runs at a time, so feed offsets are committed in increasing order even though
+    // the business transactions writing the outbox commit in any order. synchronized covers this JVM;
+    // the relay lock row taken by each batch covers the other instances sharing the database
+    @Scheduled(fixedDelayString = "${feed.flush-delay-ms:200}")
+    @Override
+    public synchronized void flush() {
+        long relayed = 0;
+        try {
+            Integer moved;
+            do {
+                moved = transactionTemplate.execute(status -> relayBatch());
+                relayed += moved == null ? 0 : moved;
+            } while (moved != null && moved == batchSize);
+        } catch (RuntimeException e) {
+            // The batch rolled back and stays in the outbox for the next run
+            log.warn("Change feed relay failed, retrying on the next run", e);
+        }
+        if (relayed > 0) {
+            log.debug("Change feed relayed " + relayed + " records");
+            wakeWaiters();
+        }
+    }
+
+    @Override
+    public DeferredResult<List<ChangeRecord>> poll(long offset, int limit) {
+        int size = Math.max(1, Math.min(limit, maxLimit));
+        DeferredResult<List<ChangeRecord>> result =
+                new DeferredResult<>(pollTimeout, Collections.<ChangeRecord>emptyList());
+        Waiter waiter = new Waiter(offset, size, result);
+        // Register before reading so a flush landing in between still wakes this consumer
+        waiters.add(waiter);
+        result.onCompletion(() -> waiters.remove(waiter));
+        List<ChangeRecord> changes = read(offset, size);
+        if (!changes.isEmpty()) {
+            result.setResult(changes);
+        }
+        return result;
+    }
+
+    private int relayBatch() {
+        // Held until the batch commits: another instance's relay waits here, then reads what is left
+        if (!relayLockRepository.lock(RELAY_LOCK).isPresent()) {
+            // First relay ever: a concurrent first insert fails on the key and that batch retries next run
+            relayLockRepository.saveAndFlush(new RelayLock(RELAY_LOCK));
+        }
+        List<PendingChange> batch = pendingChangeRepository.findByOrderByIdPendingAsc(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<ChangeRecord> records = new ArrayList<>(batch.size());
+        for (PendingChange pending : batch) {
+            records.add(new ChangeRecord(0, pending.getTypeChange(), pending.getIdEntity(), pending.getDescription(),
+                    pending.getDateChange()));
+        }
+        changeRecordRepository.saveAll(records);
+        pendingChangeRepository.deleteAllInBatch(batch);
+        return batch.size();
+    }
+
+    // Parked consumers are caught up, so one read from the lowest offset serves all of them
+    private void wakeWaiters() {
+        long from = Long.MAX_VALUE;
+        for (Waiter waiter : waiters) {
+            if (!waiter.result.isSetOrExpired()) {
+                from = Math.min(from, waiter.offset);
+            }
+        }
+        if (from == Long.MAX_VALUE) {
+            return;
+        }
+        List<ChangeRecord> changes = read(from, maxLimit);
+        for (Waiter waiter : waiters) {
+            if (waiter.result.isSetOrExpired()) {
+                continue;
+            }
+            List<ChangeRecord> after = new ArrayList<>();
+            for (ChangeRecord changeRecord : changes) {
+                if (changeRecord.getIdChange() > waiter.offset && after.size() < waiter.limit) {
+                    after.add(changeRecord);
+                }
+            }
+            // The shared read may stop short of a consumer far ahead of the others
+            if (after.isEmpty() && changes.size() == maxLimit) {
+                after = read(waiter.offset, waiter.limit);
+            }
+            if (!after.isEmpty()) {
+                waiter.result.setResult(after);
+            }
+        }
+    }
+
+    private List<ChangeRecord> read(long offset, int limit) {
+        return changeRecordRepository.findByIdChangeGreaterThanOrderByIdChangeAsc(offset, PageRequest.of(0, limit));
+    }
+
+    private static final class Waiter {
+        private final long offset;
+        private final int limit;
+        private final DeferredResult<List<ChangeRecord>> result;
+
+        private Waiter(long offset, int limit, DeferredResult<List<ChangeRecord>> result) {
+            this.offset = offset;
+            this.limit = limit;
+            this.result = result;
+        }
+    }
+
+}
@@ -0,0 +1,114 @@
+package tn.esprit.eventsproject.services;
+
+import java.time.LocalDate;
+
+/**
+ * Day-granular counters kept in primitive arrays, one row per dimension (each Tache plus a total row).
+ * Index 0 of every row is the day {@code origin}; the window grows in both directions on demand, up to
+ * {@link #MAX_DAYS}, so a single far-off date cannot blow every row up.
+ */
+public class CostBuckets {
+    private static final int INITIAL_DAYS = 2 * 366;
+    public static final int MAX_DAYS = 200 * 366;
+
+    private final int rows;
+    private long origin;
+    private long[][] quantite;
+    private double[][] cout;
+    private long[][] events;
+
+    public CostBuckets(int rows) {
+        this.rows = rows;
+        reset();
+    }
+
+    public synchronized void reset() {
+        origin = LocalDate.now().toEpochDay() - INITIAL_DAYS / 2;
+        quantite = new long[rows][INITIAL_DAYS];
+        cout = new double[rows][INITIAL_DAYS];
+        events = new long[rows][INITIAL_DAYS];
+    }
+
+    /**
+     * Returns false, changing nothing, when the day would stretch the window beyond {@link #MAX_DAYS}.
+     */
+    public synchronized boolean add(int row, LocalDate day, long addedQuantite, double addedCout, long addedEvents) {
+        int index = ensure(day.toEpochDay());
+        if (index < 0) {
+            return false;
+        }
+        quantite[row][index] += addedQuantite;
+        cout[row][index] += addedCout;
+        events[row][index] += addedEvents;
+        return true;
+    }
+
+    public synchronized LocalDate getFirstDay() {
+        return LocalDate.ofEpochDay(origin);
+    }
+
+    public synchronized int getDays() {
+        return quantite[0].length;
+    }
+
+    /**
+     * Sums one row over [from, to], both inclusive, into {quantite, cout, events}.
+     */
+    public synchronized double[] sum(int row, LocalDate from, LocalDate to) {
+        double[] totals = new double[3];
+        long first = Math.max(from.toEpochDay() - origin, 0);
+        long last = Math.min(to.toEpochDay() - origin, (long) quantite[row].length - 1);
+        if (first > last) {
+            return totals;
+        }
+        long sumQuantite = 0;
+        long sumEvents = 0;
+        double sumCout = 0;
+        for (int i = (int) first; i <= last; i++) {
+            sumQuantite += quantite[row][i];
+            sumCout += cout[row][i];
+            sumEvents += events[row][i];
+        }
+        totals[0] = sumQuantite;
+        totals[1] = sumCout;
+        totals[2] = sumEvents;
+        return totals;
+    }
+
+    private int ensure(long epochDay) {
+        int length = quantite[0].length;
+        if (epochDay >= origin && epochDay < origin + length) {
+            return (int) (epochDay - origin);
+        }
+        long newOrigin = Math.min(origin, epochDay);
+        long newEnd = Math.max(origin + length, epochDay + 1);
+        if (newEnd - newOrigin > MAX_DAYS) {
+            return -1;
+        }
+        // Double the window so repeated out-of-range writes stay amortised O(1)
+        int newLength = (int) Math.min(Math.max(newEnd - newOrigin, 2L * length), MAX_DAYS);
+        if (epochDay < origin) {
+            newOrigin = newEnd - newLength;
+        }
+        int shift = (int) (origin - newOrigin);
+        for (int row = 0; row < rows; row++) {
+            quantite[row] = grow(quantite[row], shift, newLength);
+            cout[row] = grow(cout[row], shift, newLength);
+            events[row] = grow(events[row], shift, newLength);
+        }
+        origin = newOrigin;
+        return (int) (epochDay - origin);
+    }
+
+    private static long[] grow(long[] values, int shift, int length) {
+        long[] grown = new long[length];
+        System.arraycopy(values, 0, grown, shift, values.length);
+        return grown;
+    }
+
+    private static double[] grow(double[] values, int shift, int length) {
+        double[] grown = new double[length];
+        System.arraycopy(values, 0, grown, shift, values.length);
+        return grown;
+    }
+}
@@ -4,6 +4,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tn.esprit.eventsproject.config.ReplicaRead;
 import tn.esprit.eventsproject.dto.EventDTO;
 import tn.esprit.eventsproject.dto.LogisticsDTO;
 import tn.esprit.eventsproject.dto.ParticipantDTO;
@@ -30,6 +34,7 @@ public class EventServicesImpl implements IEventServices{
     private final EventRepository eventRepository;
     private final ParticipantRepository participantRepository;
     private final LogisticsRepository logisticsRepository;
+    private final IInventoryServices inventoryServices;
     private static final String NOTFOUND="Not Found";
 
     @Override
@@ -111,8 +116,6 @@ public class EventServicesImpl implements IEventServices{
         participants.add(participant);
         event.setParticipants(participants);
 
-        participant.getEvents().add(event);
-
         // Handling logistics
         Set<Logistics> logistics = new HashSet<>();
         if (eventDTO.getLogistics() != null) {
@@ -127,14 +130,22 @@ public class EventServicesImpl implements IEventServices{
             }
         }
         event.setLogistics(logistics);
+
+        // The event must be persistent before the participant that owns the link refers to it
+        Event saved = eventRepository.save(event);
+        participant.getEvents().add(saved);
         participantRepository.save(participant);
 
-        return eventRepository.save(event);
+        return saved;
     }
 
 
     @Override
     public Logistics addAffectLog(LogisticsDTO logisticsDTO, String descriptionEvent) {
+        //A reserved row without a positive quantity would reserve nothing yet still count in a reconcile
+        if (logisticsDTO.isReserve() && logisticsDTO.getQuantite() <= 0) {
+            throw new IllegalArgumentException("Reserved quantity of " + logisticsDTO.getDescription() + " must be positive");
+        }
         Event event = eventRepository.findByDescription(descriptionEvent);
         if (event == null) {
             throw new IllegalArgumentException("Event with description " + descriptionEvent + NOTFOUND);
@@ -146,6 +157,12 @@ public class EventServicesImpl implements IEventServices{
         logistics.setPrixUnit(logisticsDTO.getPrixUnit());
         logistics.setQuantite(logisticsDTO.getQuantite());
 
+        //Reserve against the in-memory stock before touching the event, refused when oversubscribed
+        if (logistics.isReserve()) {
+            inventoryServices.reserve(logistics.getDescription(), logistics.getQuantite());
+            releaseOnRollback(logistics);
+        }
+
         //Add logistics to event
         Set<Logistics> logisticsSet = event.getLogistics();
         if (logisticsSet == null) {
@@ -154,9 +171,36 @@ public class EventServicesImpl implements IEventServices{
         }
         logisticsSet.add(logistics);
 
-        return logisticsRepository.save(logistics);
+        try {
+            return logisticsRepository.save(logistics);
+        } catch (RuntimeException e) {
+            // Inside a transaction the rollback hands the units back
+            if (logistics.isReserve() && !TransactionSynchronizationManager.isSynchronizationActive()) {
+                inventoryServices.release(logistics.getDescription(), logistics.getQuantite());
+            }
+            throw e;
+        }
+    }
+
+    // The outbox insert or the link flush at commit may still fail after save() returned
+    private void releaseOnRollback(Logistics logistics) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        String description = logistics.getDescription();
+        int quantite = logistics.getQuantite();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    inventoryServices.release(description, quantite);
+                }
+            }
+        });
     }
 
+    @ReplicaRead
+    @Transactional(readOnly = true)
     @Override
     public List<Logistics> getLogisticsDates(LocalDate dateDebut, LocalDate dateFin) {
         List<Event> events = eventRepository.findByDateDebutBetween(dateDebut, dateFin);
@@ -0,0 +1,18 @@
+package tn.esprit.eventsproject.services;
+
+import tn.esprit.eventsproject.dto.CostBucketDTO;
+import tn.esprit.eventsproject.dto.Granularity;
+import tn.esprit.eventsproject.entities.Event;
+import tn.esprit.eventsproject.entities.Logistics;
+import tn.esprit.eventsproject.entities.Tache;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface IAnalyticsServices {
+     void recordEvent(Event event);
+     void recordLogistics(Logistics logistics, String descriptionEvent);
+     void rebuild();
+     List<CostBucketDTO> rollup(LocalDate dateDebut, LocalDate dateFin, Granularity granularity, Tache tache);
+     CostBucketDTO total(LocalDate dateDebut, LocalDate dateFin, Tache tache);
+}
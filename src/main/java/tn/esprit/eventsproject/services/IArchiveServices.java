@@ -0,0 +1,13 @@
+package tn.esprit.eventsproject.services;
+
+import tn.esprit.eventsproject.entities.Logistics;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface IArchiveServices {
+     void archive();
+     int archiveBatch(LocalDate cutoff);
+     LocalDate getArchiveHorizon();
+     List<Logistics> getLogisticsDates(LocalDate dateDebut, LocalDate dateFin);
+}
@@ -0,0 +1,13 @@
+package tn.esprit.eventsproject.services;
+
+import org.springframework.web.context.request.async.DeferredResult;
+import tn.esprit.eventsproject.entities.ChangeRecord;
+import tn.esprit.eventsproject.entities.ChangeType;
+
+import java.util.List;
+
+public interface IChangeFeedServices {
+     void record(ChangeType typeChange, int idEntity, String description);
+     void flush();
+     DeferredResult<List<ChangeRecord>> poll(long offset, int limit);
+}
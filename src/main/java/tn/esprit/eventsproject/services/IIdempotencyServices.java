@@ -0,0 +1,8 @@
+package tn.esprit.eventsproject.services;
+
+import java.util.function.Supplier;
+
+public interface IIdempotencyServices {
+     <T> T execute(String idempotencyKey, String scope, Object request, Class<T> type, Supplier<T> action);
+     void purgeExpired();
+}
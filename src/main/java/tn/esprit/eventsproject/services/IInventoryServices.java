@@ -0,0 +1,12 @@
+package tn.esprit.eventsproject.services;
+
+import tn.esprit.eventsproject.entities.InventoryItem;
+
+public interface IInventoryServices {
+     void reserve(String description, int quantite);
+     void release(String description, int quantite);
+     InventoryItem setCapacite(String description, long capacite);
+     InventoryItem getItem(String description);
+     void reconcile();
+     void flush();
+}
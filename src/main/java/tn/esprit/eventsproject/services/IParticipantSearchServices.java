@@ -0,0 +1,14 @@
+package tn.esprit.eventsproject.services;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import tn.esprit.eventsproject.dto.ParticipantDTO;
+import tn.esprit.eventsproject.entities.Participant;
+import tn.esprit.eventsproject.entities.Tache;
+
+public interface IParticipantSearchServices {
+     void rebuild();
+     void index(Participant participant);
+     void remove(int idPart);
+     Slice<ParticipantDTO> search(String prefix, Tache tache, Pageable pageable);
+}
@@ -0,0 +1,249 @@
+package tn.esprit.eventsproject.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tn.esprit.eventsproject.entities.IdempotencyRecord;
+import tn.esprit.eventsproject.exceptions.IdempotencyKeyReusedException;
+import tn.esprit.eventsproject.repositories.IdempotencyRecordRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs a write at most once per (scope, key). Results sit in a bounded LRU in memory with the database
+ * table behind it; identical submissions arriving while the first is running wait for its result.
+ * Failures are not stored, so a retry after an error runs again. Each key remembers a hash of its request,
+ * and the same key sent with a different request is refused instead of answered with the first response.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class IdempotencyServicesImpl implements IIdempotencyServices {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Cached> memory = new LinkedHashMap<String, Cached>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Cached> eldest) {
+            return size() > maxEntries;
+        }
+    };
+    private final ConcurrentMap<String, Running> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${idempotency.max-entries:10000}")
+    private int maxEntries;
+    @Value("${idempotency.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    @Override
+    public <T> T execute(String idempotencyKey, String scope, Object request, Class<T> type, Supplier<T> action) {
+        if (idempotencyKey == null || idempotencyKey.trim().isEmpty()) {
+            return action.get();
+        }
+        String id = scope + ":" + idempotencyKey.trim();
+        String requestHash = hash(request);
+        Object cached = fromMemory(id, requestHash);
+        if (cached != null) {
+            return type.cast(cached);
+        }
+        Running running = new Running(requestHash);
+        Running existing = inFlight.putIfAbsent(id, running);
+        if (existing != null) {
+            checkSameRequest(id, existing.requestHash, requestHash);
+            return type.cast(await(existing.result));
+        }
+        try {
+            T result = replay(id, requestHash, type);
+            if (result == null) {
+                result = action.get();
+                remember(id, requestHash, result);
+                persist(id, requestHash, result);
+            }
+            running.result.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            running.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, running);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-delay-ms:600000}")
+    @Override
+    public void purgeExpired() {
+        int deleted = idempotencyRecordRepository.deleteExpired(LocalDateTime.now().minusMinutes(ttlMinutes));
+        synchronized (memory) {
+            memory.values().removeIf(Cached::isExpired);
+        }
+        if (deleted > 0) {
+            log.info("Purged " + deleted + " expired idempotency records");
+        }
+    }
+
+    // Checked again once this caller owns the key: a previous owner may have finished in between
+    private <T> T replay(String id, String requestHash, Class<T> type) {
+        Object cached = fromMemory(id, requestHash);
+        if (cached != null) {
+            return type.cast(cached);
+        }
+        IdempotencyRecord idempotencyRecord = idempotencyRecordRepository.findById(id).orElse(null);
+        if (idempotencyRecord == null || idempotencyRecord.getDateCreation().isBefore(LocalDateTime.now().minusMinutes(ttlMinutes))) {
+            return null;
+        }
+        checkSameRequest(id, idempotencyRecord.getRequestHash(), requestHash);
+        try {
+            T result = objectMapper.readValue(idempotencyRecord.getResponse(), type);
+            remember(id, requestHash, result);
+            return result;
+        } catch (JsonProcessingException e) {
+            log.warn("Unreadable idempotency record " + id + ", running the request again");
+            return null;
+        }
+    }
+
+    private Object fromMemory(String id, String requestHash) {
+        synchronized (memory) {
+            Cached cached = memory.get(id);
+            if (cached == null) {
+                return null;
+            }
+            if (cached.isExpired()) {
+                memory.remove(id);
+                return null;
+            }
+            checkSameRequest(id, cached.requestHash, requestHash);
+            return cached.value;
+        }
+    }
+
+    private void remember(String id, String requestHash, Object result) {
+        if (result == null) {
+            return;
+        }
+        synchronized (memory) {
+            memory.put(id, new Cached(requestHash, result, System.currentTimeMillis() + ttlMinutes * 60_000L));
+        }
+    }
+
+    private void persist(String id, String requestHash, Object result) {
+        try {
+            idempotencyRecordRepository.save(new IdempotencyRecord(id, requestHash, objectMapper.writeValueAsString(result), LocalDateTime.now()));
+        } catch (JsonProcessingException | RuntimeException e) {
+            // Still deduplicated by the in-memory front until evicted
+            log.warn("Response for " + id + " could not be stored, keeping it in memory only: " + e.getMessage());
+        }
+    }
+
+    private static void checkSameRequest(String id, String storedHash, String requestHash) {
+        // Records stored before hashes existed have none and are trusted
+        if (storedHash != null && !storedHash.equals(requestHash)) {
+            throw new IdempotencyKeyReusedException(id.substring(id.indexOf(':') + 1));
+        }
+    }
+
+    private String hash(Object request) {
+        StringBuilder canonical = new StringBuilder();
+        canonicalize(objectMapper.valueToTree(request), canonical);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    // Fields sorted by name and array elements sorted too: request collections are sets without a stable order
+    private static void canonicalize(JsonNode node, StringBuilder out) {
+        if (node == null) {
+            out.append("null");
+        } else if (node.isObject()) {
+            Map<String, JsonNode> fields = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> iterator = node.fields();
+            while (iterator.hasNext()) {
+                Map.Entry<String, JsonNode> field = iterator.next();
+                fields.put(field.getKey(), field.getValue());
+            }
+            out.append('{');
+            for (Map.Entry<String, JsonNode> field : fields.entrySet()) {
+                out.append(TextNode.valueOf(field.getKey()).toString()).append(':');
+                canonicalize(field.getValue(), out);
+                out.append(',');
+            }
+            out.append('}');
+        } else if (node.isArray()) {
+            List<String> elements = new ArrayList<>();
+            for (JsonNode element : node) {
+                StringBuilder canonical = new StringBuilder();
+                canonicalize(element, canonical);
+                elements.add(canonical.toString());
+            }
+            elements.sort(null);
+            out.append('[').append(String.join(",", elements)).append(']');
+        } else {
+            out.append(node.toString());
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static final class Running {
+        private final String requestHash;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        private Running(String requestHash) {
+            this.requestHash = requestHash;
+        }
+    }
+
+    private static final class Cached {
+        private final String requestHash;
+        private final Object value;
+        private final long expiresAt;
+
+        private Cached(String requestHash, Object value, long expiresAt) {
+            this.requestHash = requestHash;
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+
+}
@@ -0,0 +1,148 @@
+package tn.esprit.eventsproject.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tn.esprit.eventsproject.entities.InventoryItem;
+import tn.esprit.eventsproject.exceptions.InsufficientCapacityException;
+import tn.esprit.eventsproject.repositories.InventoryItemRepository;
+import tn.esprit.eventsproject.repositories.LogisticsRepository;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class InventoryServicesImpl implements IInventoryServices {
+
+    private final InventoryItemRepository inventoryItemRepository;
+    private final LogisticsRepository logisticsRepository;
+
+    // Item types without an InventoryItem row are not limited
+    private volatile ConcurrentMap<String, Stock> stocks = new ConcurrentHashMap<>();
+    // Item types whose reserved total changed since the last flush
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    @Value("${inventory.stripes:16}")
+    private int stripes;
+
+    @Override
+    public void reserve(String description, int quantite) {
+        Stock stock = stock(description);
+        if (stock == null || quantite <= 0) {
+            return;
+        }
+        if (!stock.counter.tryAcquire(quantite)) {
+            throw new InsufficientCapacityException(description, quantite, stock.counter.available());
+        }
+        dirty.add(description);
+    }
+
+    @Override
+    public void release(String description, int quantite) {
+        Stock stock = stock(description);
+        if (stock == null || quantite <= 0) {
+            return;
+        }
+        stock.counter.release(quantite);
+        dirty.add(description);
+    }
+
+    @Transactional
+    @Override
+    public synchronized InventoryItem setCapacite(String description, long capacite) {
+        if (description == null || capacite < 0) {
+            throw new IllegalArgumentException("Capacity of " + description + " must not be negative");
+        }
+        InventoryItem item = inventoryItemRepository.findById(description).orElse(null);
+        Stock stock = stocks.get(description);
+        if (stock == null) {
+            // Newly limited item type: whatever is already reserved counts against the capacity
+            long reserved = logisticsRepository.sumReservedQuantite(description);
+            stock = new Stock(capacite, new StripedCounter(stripes, capacite - reserved));
+            stocks.put(description, stock);
+        } else {
+            stock.counter.release(capacite - stock.capacite);
+            stock.capacite = capacite;
+        }
+        if (item == null) {
+            item = new InventoryItem(description, capacite, 0);
+        }
+        item.setCapacite(capacite);
+        item.setQuantiteReservee(capacite - stock.counter.available());
+        return inventoryItemRepository.save(item);
+    }
+
+    @Override
+    public InventoryItem getItem(String description) {
+        Stock stock = stock(description);
+        if (stock == null) {
+            return null;
+        }
+        long capacite = stock.capacite;
+        return new InventoryItem(description, capacite, capacite - stock.counter.available());
+    }
+
+    // Before the web server takes requests, so no reservation is made against empty counters
+    @PostConstruct
+    @Override
+    public synchronized void reconcile() {
+        Map<String, Long> reserved = new HashMap<>();
+        for (Object[] row : logisticsRepository.sumReservedQuantiteByDescription()) {
+            reserved.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        ConcurrentMap<String, Stock> rebuilt = new ConcurrentHashMap<>();
+        List<InventoryItem> items = inventoryItemRepository.findAll();
+        for (InventoryItem item : items) {
+            long booked = reserved.getOrDefault(item.getDescription(), 0L);
+            if (booked > item.getCapacite()) {
+                log.warn("{} is oversubscribed: {} reserved for a capacity of {}", item.getDescription(), booked, item.getCapacite());
+            }
+            item.setQuantiteReservee(booked);
+            rebuilt.put(item.getDescription(), new Stock(item.getCapacite(), new StripedCounter(stripes, item.getCapacite() - booked)));
+        }
+        inventoryItemRepository.saveAll(items);
+        stocks = rebuilt;
+        dirty.clear();
+        log.info("Inventory reconciled for {} item types", items.size());
+    }
+
+    // Reserved totals are written behind the counters, one transaction for all item types changed since the last run
+    @Scheduled(fixedDelayString = "${inventory.flush-delay-ms:1000}")
+    @Transactional
+    @Override
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<String> changed = new ArrayList<>(dirty);
+        dirty.removeAll(changed);
+        for (String description : changed) {
+            Stock stock = stocks.get(description);
+            if (stock != null) {
+                inventoryItemRepository.updateQuantiteReservee(description, stock.capacite - stock.counter.available());
+            }
+        }
+        log.debug("Flushed reserved totals of {} item types", changed.size());
+    }
+
+    private Stock stock(String description) {
+        return description == null ? null : stocks.get(description);
+    }
+
+    private static final class Stock {
+        private volatile long capacite;
+        private final StripedCounter counter;
+
+        private Stock(long capacite, StripedCounter counter) {
+            this.capacite = capacite;
+            this.counter = counter;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package tn.esprit.eventsproject.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import tn.esprit.eventsproject.dto.ParticipantDTO;
+import tn.esprit.eventsproject.entities.Participant;
+import tn.esprit.eventsproject.entities.Tache;
+import tn.esprit.eventsproject.repositories.ParticipantRepository;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class ParticipantSearchServicesImpl implements IParticipantSearchServices {
+
+    private static final int REBUILD_PAGE = 1000;
+
+    private final ParticipantRepository participantRepository;
+
+    private final ConcurrentMap<Integer, ParticipantDTO> byId = new ConcurrentHashMap<>();
+    // Sorted on the lower-cased name so a prefix is a contiguous sub-map, ids sorted within a name
+    private final ConcurrentSkipListMap<String, Set<Integer>> byName = new ConcurrentSkipListMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Override
+    public void rebuild() {
+        byId.clear();
+        byName.clear();
+        // Sorted by id: without an order the database may repeat or skip rows between pages
+        Page<Participant> page = participantRepository.findAll(PageRequest.of(0, REBUILD_PAGE, Sort.by("idPart")));
+        while (true) {
+            for (Participant participant : page.getContent()) {
+                index(participant);
+            }
+            if (!page.hasNext()) {
+                break;
+            }
+            page = participantRepository.findAll(page.nextPageable());
+        }
+        log.info("Participant search index rebuilt with " + byId.size() + " participants");
+    }
+
+    @Override
+    public synchronized void index(Participant participant) {
+        remove(participant.getIdPart());
+        ParticipantDTO entry = new ParticipantDTO(participant.getIdPart(), participant.getNom(),
+                participant.getPrenom(), participant.getTache(), null);
+        byId.put(entry.getIdPart(), entry);
+        addKey(normalize(entry.getNom()), entry.getIdPart());
+        addKey(normalize(entry.getPrenom()), entry.getIdPart());
+    }
+
+    @Override
+    public synchronized void remove(int idPart) {
+        ParticipantDTO previous = byId.remove(idPart);
+        if (previous != null) {
+            removeKey(normalize(previous.getNom()), idPart);
+            removeKey(normalize(previous.getPrenom()), idPart);
+        }
+    }
+
+    /**
+     * Walks the matching names in order and stops one past the requested page, so a page costs its offset
+     * plus its size instead of every match. Results are ordered by the matching name, then by id; a
+     * participant matching on both nom and prenom appears once, at its first match.
+     */
+    @Override
+    public Slice<ParticipantDTO> search(String prefix, Tache tache, Pageable pageable) {
+        String key = normalize(prefix);
+        long skip = pageable.getOffset();
+        int size = pageable.getPageSize();
+        List<ParticipantDTO> content = new ArrayList<>(size);
+        Set<Integer> seen = new HashSet<>();
+        boolean hasNext = false;
+        // No character sorts above Character.MAX_VALUE, so this range holds exactly the keys starting with the prefix
+        ConcurrentNavigableMap<String, Set<Integer>> matches = byName.subMap(key, true, key + Character.MAX_VALUE, true);
+        walk:
+        for (Set<Integer> keyIds : matches.values()) {
+            for (Integer id : keyIds) {
+                ParticipantDTO entry = byId.get(id);
+                if (entry == null || (tache != null && tache != entry.getTache()) || !seen.add(id)) {
+                    continue;
+                }
+                if (skip > 0) {
+                    skip--;
+                } else if (content.size() < size) {
+                    content.add(entry);
+                } else {
+                    hasNext = true;
+                    break walk;
+                }
+            }
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    private void addKey(String key, int idPart) {
+        if (!key.isEmpty()) {
+            byName.computeIfAbsent(key, k -> new ConcurrentSkipListSet<>()).add(idPart);
+        }
+    }
+
+    private void removeKey(String key, int idPart) {
+        Set<Integer> ids = byName.get(key);
+        if (ids != null) {
+            ids.remove(idPart);
+            if (ids.isEmpty()) {
+                byName.remove(key, ids);
+            }
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+}
@@ -0,0 +1,78 @@
+package tn.esprit.eventsproject.services;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Available quantity split over stripes so concurrent reservations rarely touch the same cell.
+ * A reservation first takes from one stripe with a CAS; when no single stripe holds enough it gathers all
+ * stripes under a lock. Units only ever move between stripes or to a successful caller, so the total can
+ * never be oversold.
+ */
+public class StripedCounter {
+    private final AtomicLongArray stripes;
+    private final int mask;
+
+    public StripedCounter(int stripeCount, long available) {
+        // Smallest power of two holding stripeCount, so a stripe index is a mask away
+        int size = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new AtomicLongArray(size);
+        this.mask = size - 1;
+        long share = available / size;
+        for (int i = 0; i < size; i++) {
+            stripes.set(i, share);
+        }
+        stripes.addAndGet(0, available - share * size);
+    }
+
+    public boolean tryAcquire(long quantity) {
+        if (quantity <= 0) {
+            return true;
+        }
+        int home = home();
+        for (int i = 0; i <= mask; i++) {
+            int index = (home + i) & mask;
+            long current;
+            while ((current = stripes.get(index)) >= quantity) {
+                if (stripes.compareAndSet(index, current, current - quantity)) {
+                    return true;
+                }
+            }
+        }
+        return acquireGathered(quantity, home);
+    }
+
+    /**
+     * Gives quantity back, or with a negative value takes it away (e.g. when capacity is lowered).
+     */
+    public void release(long quantity) {
+        stripes.addAndGet(home(), quantity);
+    }
+
+    public int getStripes() {
+        return mask + 1;
+    }
+
+    public long available() {
+        long sum = 0;
+        for (int i = 0; i <= mask; i++) {
+            sum += stripes.get(i);
+        }
+        return sum;
+    }
+
+    // Only one gatherer at a time, so a caller failing the fast path always sees every unit before being refused
+    private synchronized boolean acquireGathered(long quantity, int home) {
+        long gathered = 0;
+        for (int i = 0; i <= mask; i++) {
+            gathered += stripes.getAndSet(i, 0);
+        }
+        boolean acquired = gathered >= quantity;
+        stripes.addAndGet(home, acquired ? gathered - quantity : gathered);
+        return acquired;
+    }
+
+    private int home() {
+        long id = Thread.currentThread().getId();
+        return (int) (id ^ (id >>> 16)) & mask;
+    }
+}
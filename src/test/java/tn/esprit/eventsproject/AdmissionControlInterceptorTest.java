@@ -0,0 +1,112 @@
+package tn.esprit.eventsproject;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+import tn.esprit.eventsproject.config.AdmissionControlInterceptor;
+import tn.esprit.eventsproject.config.AdmissionControlProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlInterceptorTest {
+    private static final String ADD_EVENT = "/event/addEvent";
+    private static final String GET_LOGS = "/event/getLogs/{d1}/{d2}";
+
+    private SimpleMeterRegistry registry;
+    private AdmissionControlInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        AdmissionControlProperties properties = new AdmissionControlProperties();
+        properties.setInitialLimit(10);
+        properties.setMinLimit(1);
+        properties.setMaxLimit(10);
+        properties.setWriteShare(0.6);
+        properties.setRetryAfterSeconds(3);
+        registry = new SimpleMeterRegistry();
+        interceptor = new AdmissionControlInterceptor(properties, registry);
+    }
+
+    @Test
+    void testPreHandle_WritesCappedAtWriteShareReadsUseTheRest() {
+        for (int i = 0; i < 6; i++) {
+            assertTrue(admit("POST", ADD_EVENT).admitted);
+        }
+        Call rejected = admit("POST", ADD_EVENT);
+        assertFalse(rejected.admitted);
+
+        // Reads still get the four slots writes may not use
+        for (int i = 0; i < 4; i++) {
+            assertTrue(admit("GET", GET_LOGS).admitted);
+        }
+        assertFalse(admit("GET", GET_LOGS).admitted);
+        assertEquals(1.0, registry.counter("admission.rejected", "endpoint", "POST " + ADD_EVENT).count());
+        assertEquals(1.0, registry.counter("admission.rejected", "endpoint", "GET " + GET_LOGS).count());
+    }
+
+    @Test
+    void testPreHandle_OverLimitAnswers503WithRetryAfter() {
+        for (int i = 0; i < 6; i++) {
+            admit("POST", ADD_EVENT);
+        }
+
+        MockHttpServletResponse response = admit("POST", ADD_EVENT).response;
+
+        assertEquals(503, response.getStatus());
+        assertEquals("3", response.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void testAfterCompletion_FreesTheSlotForTheNextRequest() {
+        List<Call> calls = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            calls.add(admit("POST", ADD_EVENT));
+        }
+        assertFalse(admit("POST", ADD_EVENT).admitted);
+
+        Call done = calls.get(0);
+        interceptor.afterCompletion(done.request, done.response, null, null);
+
+        assertTrue(admit("POST", ADD_EVENT).admitted);
+        assertEquals(6.0, registry.get("admission.inflight").tag("endpoint", "all").gauge().value());
+    }
+
+    @Test
+    void testAfterCompletion_RejectedRequestReleasesNothing() {
+        for (int i = 0; i < 6; i++) {
+            admit("POST", ADD_EVENT);
+        }
+        Call rejected = admit("POST", ADD_EVENT);
+
+        interceptor.afterCompletion(rejected.request, rejected.response, null, null);
+
+        assertEquals(6.0, registry.get("admission.inflight").tag("endpoint", "all").gauge().value());
+        assertFalse(admit("POST", ADD_EVENT).admitted);
+    }
+
+    private Call admit(String method, String pattern) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, pattern);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        return new Call(request, response, interceptor.preHandle(request, response, null));
+    }
+
+    private static final class Call {
+        private final MockHttpServletRequest request;
+        private final MockHttpServletResponse response;
+        private final boolean admitted;
+
+        private Call(MockHttpServletRequest request, MockHttpServletResponse response, boolean admitted) {
+            this.request = request;
+            this.response = response;
+            this.admitted = admitted;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package tn.esprit.eventsproject;
+
+import org.junit.jupiter.api.Test;
+import tn.esprit.eventsproject.config.AdmissionLimiter;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionLimiterTest {
+    private static final long TARGET = TimeUnit.MILLISECONDS.toNanos(200);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    void testTryAcquire_RefusesPastTheLimitUntilASlotIsFreed() {
+        AdmissionLimiter limiter = new AdmissionLimiter(3, 1, 10, TARGET, 0.5);
+
+        assertTrue(limiter.tryAcquire(1.0));
+        assertTrue(limiter.tryAcquire(1.0));
+        assertTrue(limiter.tryAcquire(1.0));
+        assertFalse(limiter.tryAcquire(1.0));
+
+        limiter.cancel();
+        assertEquals(2, limiter.getInFlight());
+        assertTrue(limiter.tryAcquire(1.0));
+    }
+
+    @Test
+    void testTryAcquire_ShareCapsTheSlotsButNeverBelowOne() {
+        AdmissionLimiter limiter = new AdmissionLimiter(10, 1, 10, TARGET, 0.5);
+
+        for (int i = 0; i < 6; i++) {
+            assertTrue(limiter.tryAcquire(0.6));
+        }
+        assertFalse(limiter.tryAcquire(0.6));
+        // The rest of the limit stays available to full-share callers
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire(1.0));
+        }
+        assertFalse(limiter.tryAcquire(1.0));
+
+        AdmissionLimiter small = new AdmissionLimiter(1, 1, 10, TARGET, 0.5);
+        assertTrue(small.tryAcquire(0.1));
+    }
+
+    @Test
+    void testRelease_SlowResponsesCutTheLimitOncePerTargetInterval() throws InterruptedException {
+        AdmissionLimiter limiter = new AdmissionLimiter(16, 1, 100, TARGET, 0.5);
+
+        // Several slow responses landing together are one congestion signal
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire(1.0));
+        }
+        for (int i = 0; i < 3; i++) {
+            limiter.release(SLOW);
+        }
+        assertEquals(8, limiter.getLimit(), 0.001);
+        assertEquals(0, limiter.getInFlight());
+
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(TARGET) + 50);
+        assertTrue(limiter.tryAcquire(1.0));
+        limiter.release(SLOW);
+        assertEquals(4, limiter.getLimit(), 0.001);
+    }
+
+    @Test
+    void testRelease_LimitNeverDropsBelowTheMinimum() throws InterruptedException {
+        AdmissionLimiter limiter = new AdmissionLimiter(4, 3, 100, TimeUnit.MILLISECONDS.toNanos(1), 0.5);
+
+        assertTrue(limiter.tryAcquire(1.0));
+        limiter.release(SLOW);
+        Thread.sleep(5);
+        assertTrue(limiter.tryAcquire(1.0));
+        limiter.release(SLOW);
+
+        assertEquals(3, limiter.getLimit(), 0.001);
+    }
+
+    @Test
+    void testRelease_FastResponsesGrowTheLimitOnlyWhileItIsUsed() {
+        AdmissionLimiter limiter = new AdmissionLimiter(10, 1, 100, TARGET, 0.5);
+
+        // Two in flight out of ten: the limit is not what holds traffic back
+        assertTrue(limiter.tryAcquire(1.0));
+        assertTrue(limiter.tryAcquire(1.0));
+        limiter.release(FAST);
+        limiter.release(FAST);
+        assertEquals(10, limiter.getLimit(), 0.001);
+
+        // Half the limit busy: each fast response adds 1/limit
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(1.0));
+        }
+        limiter.release(FAST);
+        assertEquals(10.1, limiter.getLimit(), 0.001);
+    }
+
+    @Test
+    void testRelease_GrowthStopsAtTheMaximum() {
+        AdmissionLimiter limiter = new AdmissionLimiter(2, 1, 2, TARGET, 0.5);
+
+        assertTrue(limiter.tryAcquire(1.0));
+        assertTrue(limiter.tryAcquire(1.0));
+        limiter.release(FAST);
+        limiter.release(FAST);
+
+        assertEquals(2, limiter.getLimit(), 0.001);
+    }
+}
@@ -0,0 +1,198 @@
+package tn.esprit.eventsproject;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import tn.esprit.eventsproject.dto.CostBucketDTO;
+import tn.esprit.eventsproject.dto.Granularity;
+import tn.esprit.eventsproject.entities.*;
+import tn.esprit.eventsproject.exceptions.RangeTooLargeException;
+import tn.esprit.eventsproject.repositories.ArchivedEventRepository;
+import tn.esprit.eventsproject.repositories.EventRepository;
+import tn.esprit.eventsproject.services.AnalyticsServicesImpl;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnalyticsServicesImplTest {
+    // A Monday, so weekly buckets line up with it
+    private static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+
+    @Mock
+    private EventRepository eventRepository;
+    @Mock
+    private ArchivedEventRepository archivedEventRepository;
+
+    @InjectMocks
+    AnalyticsServicesImpl analyticsServices;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(analyticsServices, "maxBuckets", 1000);
+    }
+
+    @Test
+    void testRollup_DailyAndWeeklyBuckets() {
+        analyticsServices.recordEvent(event(1, MONDAY, Tache.ORGANISATEUR, logistics(10, true, 2f, 5)));
+        analyticsServices.recordEvent(event(2, MONDAY.plusDays(2), Tache.INVITE, logistics(11, true, 1f, 3)));
+        analyticsServices.recordEvent(event(3, MONDAY.plusDays(8), Tache.INVITE, logistics(12, false, 100f, 100)));
+
+        List<CostBucketDTO> daily = analyticsServices.rollup(MONDAY, MONDAY.plusDays(2), Granularity.DAY, null);
+        assertEquals(3, daily.size());
+        assertBucket(daily.get(0), MONDAY, MONDAY, 5, 10, 1);
+        assertBucket(daily.get(1), MONDAY.plusDays(1), MONDAY.plusDays(1), 0, 0, 0);
+        assertBucket(daily.get(2), MONDAY.plusDays(2), MONDAY.plusDays(2), 3, 3, 1);
+
+        // Weeks start on Monday even when the range does not
+        List<CostBucketDTO> weekly = analyticsServices.rollup(MONDAY.plusDays(1), MONDAY.plusDays(13), Granularity.WEEK, null);
+        assertEquals(2, weekly.size());
+        assertBucket(weekly.get(0), MONDAY, MONDAY.plusDays(6), 8, 13, 2);
+        // Unreserved logistics count the event but no quantity or cost
+        assertBucket(weekly.get(1), MONDAY.plusDays(7), MONDAY.plusDays(13), 0, 0, 1);
+    }
+
+    @Test
+    void testRollup_FilteredByTache() {
+        analyticsServices.recordEvent(event(1, MONDAY, Tache.ORGANISATEUR, logistics(10, true, 2f, 5)));
+        analyticsServices.recordEvent(event(2, MONDAY, Tache.INVITE, logistics(11, true, 1f, 3)));
+
+        assertBucket(analyticsServices.total(MONDAY, MONDAY, Tache.INVITE), MONDAY, MONDAY, 3, 3, 1);
+        assertBucket(analyticsServices.total(MONDAY, MONDAY, Tache.ORGANISATEUR), MONDAY, MONDAY, 5, 10, 1);
+        assertBucket(analyticsServices.total(MONDAY, MONDAY, Tache.SERVEUR), MONDAY, MONDAY, 0, 0, 0);
+        assertBucket(analyticsServices.total(MONDAY, MONDAY, null), MONDAY, MONDAY, 8, 13, 2);
+    }
+
+    @Test
+    void testRollupAndTotal_MissingOrReversedDates() {
+        analyticsServices.recordEvent(event(1, MONDAY, Tache.INVITE, logistics(10, true, 2f, 5)));
+
+        assertTrue(analyticsServices.rollup(null, MONDAY, Granularity.DAY, null).isEmpty());
+        assertTrue(analyticsServices.rollup(MONDAY, MONDAY.minusDays(1), Granularity.WEEK, null).isEmpty());
+        assertBucket(analyticsServices.total(null, MONDAY, null), null, MONDAY, 0, 0, 0);
+        assertBucket(analyticsServices.total(MONDAY, null, Tache.INVITE), MONDAY, null, 0, 0, 0);
+        assertBucket(analyticsServices.total(MONDAY, MONDAY.minusDays(1), null), MONDAY, MONDAY.minusDays(1), 0, 0, 0);
+    }
+
+    @Test
+    void testRecordLogistics_AddsToTheEventDay() {
+        Event event = event(1, MONDAY, Tache.INVITE);
+        when(eventRepository.findByDescription("Event-1")).thenReturn(event);
+
+        analyticsServices.recordLogistics(logistics(10, true, 4f, 2), "Event-1");
+        analyticsServices.recordLogistics(logistics(11, false, 4f, 2), "Event-1");
+
+        // Logistics add quantity and cost, never an event
+        assertBucket(analyticsServices.total(MONDAY, MONDAY, Tache.INVITE), MONDAY, MONDAY, 2, 8, 0);
+    }
+
+    @Test
+    void testRollup_TooManyBucketsRefused() {
+        // 1000 days by day is the most allowed, the same range by week is far below it
+        assertEquals(1000, analyticsServices.rollup(MONDAY, MONDAY.plusDays(999), Granularity.DAY, null).size());
+        assertThrows(RangeTooLargeException.class,
+                () -> analyticsServices.rollup(MONDAY, MONDAY.plusDays(1000), Granularity.DAY, null));
+        assertEquals(143, analyticsServices.rollup(MONDAY, MONDAY.plusDays(999), Granularity.WEEK, null).size());
+        assertThrows(RangeTooLargeException.class,
+                () -> analyticsServices.rollup(LocalDate.of(1, 1, 1), LocalDate.of(9999, 12, 31), Granularity.WEEK, null));
+    }
+
+    @Test
+    void testRebuild_PagesAggregatedRowsById() {
+        when(eventRepository.findReservedTotalsAfter(0, PageRequest.of(0, 500))).thenReturn(rows(
+                row(1, MONDAY, 5, 10), row(2, MONDAY.plusDays(1), 3, 3)));
+        when(eventRepository.findTachesBetween(1, 2)).thenReturn(rows(
+                new Object[]{1, Tache.ORGANISATEUR}, new Object[]{1, Tache.INVITE}, new Object[]{2, Tache.INVITE}));
+        when(archivedEventRepository.findReservedTotalsAfter(0, PageRequest.of(0, 500))).thenReturn(rows(row(7, MONDAY, 4, 8)));
+        when(archivedEventRepository.findTachesBetween(7, 7)).thenReturn(rows(new Object[]{7, Tache.SERVEUR}));
+
+        analyticsServices.rebuild();
+
+        // Next pages start after the last id read
+        verify(eventRepository).findReservedTotalsAfter(2, PageRequest.of(0, 500));
+        verify(archivedEventRepository).findReservedTotalsAfter(7, PageRequest.of(0, 500));
+        verify(eventRepository, never()).findAll(any(Pageable.class));
+        assertBucket(analyticsServices.total(MONDAY, MONDAY.plusDays(1), null), MONDAY, MONDAY.plusDays(1), 12, 21, 3);
+        assertBucket(analyticsServices.total(MONDAY, MONDAY.plusDays(1), Tache.INVITE), MONDAY, MONDAY.plusDays(1), 8, 13, 2);
+        assertBucket(analyticsServices.total(MONDAY, MONDAY, Tache.ORGANISATEUR), MONDAY, MONDAY, 5, 10, 1);
+        assertBucket(analyticsServices.total(MONDAY, MONDAY, Tache.SERVEUR), MONDAY, MONDAY, 4, 8, 1);
+    }
+
+    @Test
+    void testRebuild_ReplaysWritesMadeMeanwhileWithoutCountingThemTwice() {
+        Event stored = event(1, MONDAY, Tache.INVITE, logistics(10, true, 1f, 1));
+        Event committedDuringRebuild = event(2, MONDAY, Tache.INVITE, logistics(11, true, 1f, 2));
+        Event missedByRebuild = event(3, MONDAY, Tache.INVITE, logistics(12, true, 1f, 4));
+        when(eventRepository.findByDescription("Event-1")).thenReturn(stored);
+        when(eventRepository.findReservedTotalsAfter(0, PageRequest.of(0, 500))).thenAnswer(invocation -> {
+            // Writes landing while the rebuild reads: one the page already contains, one it does not
+            analyticsServices.recordEvent(committedDuringRebuild);
+            analyticsServices.recordEvent(missedByRebuild);
+            analyticsServices.recordLogistics(logistics(10, true, 1f, 1), "Event-1");
+            analyticsServices.recordLogistics(logistics(13, true, 1f, 8), "Event-1");
+            return rows(row(1, MONDAY, 1, 1), row(2, MONDAY, 2, 2));
+        });
+        when(eventRepository.findTachesBetween(1, 2)).thenReturn(rows(new Object[]{1, Tache.INVITE}, new Object[]{2, Tache.INVITE}));
+        when(eventRepository.findLogisticsIdsBetween(1, 2)).thenReturn(Arrays.asList(10, 11));
+
+        analyticsServices.rebuild();
+
+        // stored 1 + committedDuringRebuild 2 from the page, then missedByRebuild 4 and logistics 13 replayed
+        assertBucket(analyticsServices.total(MONDAY, MONDAY, null), MONDAY, MONDAY, 15, 15, 3);
+
+        // Writes after the rebuild go straight to the new buckets
+        analyticsServices.recordEvent(event(4, MONDAY, Tache.INVITE, logistics(14, true, 1f, 16)));
+        assertBucket(analyticsServices.total(MONDAY, MONDAY, Tache.INVITE), MONDAY, MONDAY, 31, 31, 4);
+    }
+
+    @Test
+    void testRecordEvent_FarFutureDateIgnored() {
+        analyticsServices.recordEvent(event(1, LocalDate.of(9999, 1, 1), Tache.INVITE, logistics(10, true, 1f, 1)));
+        analyticsServices.recordEvent(event(2, MONDAY, Tache.INVITE, logistics(11, true, 1f, 2)));
+
+        assertBucket(analyticsServices.total(LocalDate.MIN, LocalDate.MAX, null), LocalDate.MIN, LocalDate.MAX, 2, 2, 1);
+    }
+
+    private static Object[] row(int idEvent, LocalDate dateDebut, long quantite, double cout) {
+        return new Object[]{idEvent, dateDebut, quantite, cout};
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return Arrays.asList(rows);
+    }
+
+    private static void assertBucket(CostBucketDTO bucket, LocalDate dateDebut, LocalDate dateFin, long quantite,
+                                     double cout, long events) {
+        assertEquals(dateDebut, bucket.getDateDebut());
+        assertEquals(dateFin, bucket.getDateFin());
+        assertEquals(quantite, bucket.getQuantite());
+        assertEquals(cout, bucket.getCout(), 0.001);
+        assertEquals(events, bucket.getEvents());
+    }
+
+    private static Event event(int idEvent, LocalDate dateDebut, Tache tache, Logistics... logistics) {
+        Participant participant = new Participant();
+        participant.setTache(tache);
+        Event event = new Event();
+        event.setIdEvent(idEvent);
+        event.setDescription("Event-" + idEvent);
+        event.setDateDebut(dateDebut);
+        event.setParticipants(new HashSet<>(Collections.singletonList(participant)));
+        event.setLogistics(new HashSet<>(Arrays.asList(logistics)));
+        return event;
+    }
+
+    private static Logistics logistics(int idLog, boolean reserve, float prixUnit, int quantite) {
+        return new Logistics(idLog, "Chaises", reserve, prixUnit, quantite);
+    }
+}
@@ -0,0 +1,109 @@
+package tn.esprit.eventsproject;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.esprit.eventsproject.dto.CostBucketDTO;
+import tn.esprit.eventsproject.entities.*;
+import tn.esprit.eventsproject.repositories.*;
+import tn.esprit.eventsproject.services.IAnalyticsServices;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Analytics rebuild on H2: aggregated rows only, no entity is loaded however many events there are
+@ActiveProfiles("it")
+@SpringBootTest
+class AnalyticsServicesTest {
+    private static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+
+    @Autowired
+    private IAnalyticsServices analyticsServices;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private ParticipantRepository participantRepository;
+    @Autowired
+    private LogisticsRepository logisticsRepository;
+    @Autowired
+    private ArchivedEventRepository archivedEventRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM participant_events");
+        jdbcTemplate.execute("DELETE FROM event_logistics");
+        jdbcTemplate.execute("DELETE FROM event");
+        jdbcTemplate.execute("DELETE FROM logistics");
+        jdbcTemplate.execute("DELETE FROM participant");
+        archivedEventRepository.deleteAll();
+        analyticsServices.rebuild();
+    }
+
+    @Test
+    void testRebuild_AggregatesWithoutLoadingEntities() {
+        Participant organisateur = participant(Tache.ORGANISATEUR);
+        Participant invite = participant(Tache.INVITE);
+        Participant autreInvite = participant(Tache.INVITE);
+        event(MONDAY, Arrays.asList(organisateur, invite, autreInvite), logistics(true, 2.5f, 4), logistics(false, 100f, 9),
+                logistics(true, 1f, 3));
+        event(MONDAY, Collections.singletonList(invite));
+        event(MONDAY.plusDays(1), Collections.<Participant>emptyList(), logistics(true, 10f, 1));
+        archivedEventRepository.save(new ArchivedEvent(100_000, "Archived", MONDAY, MONDAY, 0f, 6, 12d,
+                new HashSet<>(), EnumSet.of(Tache.SERVEUR)));
+
+        QueryCount count = QueryCount.measure(() -> analyticsServices.rebuild());
+
+        // Events: totals, roles, logistics ids and the empty next page; archive: totals, roles and the empty next page
+        count.selectsAtMost(7).rowsLoadedAtMost(0);
+        assertBucket(analyticsServices.total(MONDAY, MONDAY, null), 13, 25, 3);
+        // Each role counts once per event, however many participants share it
+        assertBucket(analyticsServices.total(MONDAY, MONDAY, Tache.INVITE), 7, 13, 2);
+        assertBucket(analyticsServices.total(MONDAY, MONDAY, Tache.ORGANISATEUR), 7, 13, 1);
+        assertBucket(analyticsServices.total(MONDAY, MONDAY, Tache.SERVEUR), 6, 12, 1);
+        assertBucket(analyticsServices.total(MONDAY.plusDays(1), MONDAY.plusDays(1), null), 1, 10, 1);
+    }
+
+    private static void assertBucket(CostBucketDTO bucket, long quantite, double cout, long events) {
+        assertEquals(quantite, bucket.getQuantite());
+        assertEquals(cout, bucket.getCout(), 0.001);
+        assertEquals(events, bucket.getEvents());
+    }
+
+    private Participant participant(Tache tache) {
+        Participant participant = new Participant();
+        participant.setNom("Analytics");
+        participant.setPrenom(tache.name());
+        participant.setTache(tache);
+        participant.setEvents(new HashSet<>());
+        return participantRepository.save(participant);
+    }
+
+    private Logistics logistics(boolean reserve, float prixUnit, int quantite) {
+        return logisticsRepository.save(new Logistics(0, "Chaises", reserve, prixUnit, quantite));
+    }
+
+    private void event(LocalDate dateDebut, List<Participant> participants, Logistics... logistics) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Event event = new Event();
+            event.setDescription("Event-" + UUID.randomUUID());
+            event.setDateDebut(dateDebut);
+            event.setDateFin(dateDebut);
+            event.setLogistics(new HashSet<>(Arrays.asList(logistics)));
+            Event saved = eventRepository.save(event);
+            for (Participant participant : participants) {
+                participantRepository.findById(participant.getIdPart()).orElseThrow(IllegalStateException::new)
+                        .getEvents().add(saved);
+            }
+        });
+    }
+}
@@ -0,0 +1,218 @@
+package tn.esprit.eventsproject;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.esprit.eventsproject.entities.*;
+import tn.esprit.eventsproject.repositories.*;
+import tn.esprit.eventsproject.services.IArchiveServices;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Archival on H2: archived rows are written, hot rows and join rows removed, and runs resume batch by batch
+@ActiveProfiles("it")
+@SpringBootTest(properties = {"archive.batch-size=2", "archive.pause-ms=0"})
+class ArchiveServicesTest {
+    private static final LocalDate OLD = LocalDate.now().minusYears(3);
+
+    @Autowired
+    private IArchiveServices archiveServices;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private ParticipantRepository participantRepository;
+    @Autowired
+    private LogisticsRepository logisticsRepository;
+    @Autowired
+    private ArchivedEventRepository archivedEventRepository;
+    @Autowired
+    private ArchivedLogisticsRepository archivedLogisticsRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM participant_events");
+        jdbcTemplate.execute("DELETE FROM event_logistics");
+        jdbcTemplate.execute("DELETE FROM event");
+        jdbcTemplate.execute("DELETE FROM logistics");
+        jdbcTemplate.execute("DELETE FROM participant");
+        archivedEventRepository.deleteAll();
+        archivedLogisticsRepository.deleteAll();
+    }
+
+    @Test
+    void testArchiveBatch_MovesOldestEventsAndRemovesHotRows() {
+        Participant participant = participant("Tounsi", "Ahmed", Tache.ORGANISATEUR);
+        Event first = event("Old-1", OLD, participant, logistics(true, 10f, 3));
+        Event second = event("Old-2", OLD.plusDays(1), participant, logistics(false, 20f, 1));
+        Event third = event("Old-3", OLD.plusDays(2), participant, logistics(true, 5f, 2));
+        Event recent = event("Recent", LocalDate.now().plusDays(5), participant, logistics(true, 1f, 1));
+
+        int moved = archiveBatch();
+
+        assertEquals(2, moved);
+        ArchivedEvent archived = transactionTemplate.execute(status -> {
+            ArchivedEvent found = archivedEventRepository.findById(first.getIdEvent()).orElseThrow(IllegalStateException::new);
+            found.getParticipantIds().size();
+            found.getTaches().size();
+            return found;
+        });
+        assertEquals("Old-1", archived.getDescription());
+        assertEquals(3, archived.getReservedQuantite());
+        assertEquals(30d, archived.getReservedCout(), 0.001);
+        assertEquals(Collections.singleton(participant.getIdPart()), archived.getParticipantIds());
+        assertEquals(EnumSet.of(Tache.ORGANISATEUR), archived.getTaches());
+        assertTrue(archivedEventRepository.existsById(second.getIdEvent()));
+        assertEquals(2, archivedLogisticsRepository.count());
+
+        // Hot rows and every join row of the archived events are gone, the rest is untouched
+        assertFalse(eventRepository.existsById(first.getIdEvent()));
+        assertFalse(eventRepository.existsById(second.getIdEvent()));
+        assertTrue(eventRepository.existsById(third.getIdEvent()));
+        assertTrue(eventRepository.existsById(recent.getIdEvent()));
+        assertEquals(2, logisticsRepository.count());
+        assertEquals(0, links("participant_events", "events_id_event", first, second));
+        assertEquals(0, links("event_logistics", "event_id_event", first, second));
+        assertEquals(2, links("participant_events", "events_id_event", third, recent));
+        assertTrue(participantRepository.existsById(participant.getIdPart()));
+    }
+
+    @Test
+    void testArchiveBatch_UnlinksParticipantsWithoutLoadingThem() {
+        Participant organisateur = participant("Tounsi", "Ahmed", Tache.ORGANISATEUR);
+        Participant invite = participant("Gharbi", "Sarra", Tache.INVITE);
+        Event first = event("Old-1", OLD, organisateur, logistics(true, 10f, 3));
+        Event second = event("Old-2", OLD.plusDays(1), organisateur, logistics(false, 20f, 1));
+        link(invite, first);
+        // A long history the batch must not read through
+        List<Event> history = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Event recent = event("Recent-" + i, LocalDate.now().plusDays(5 + i), organisateur, logistics(true, 1f, 1));
+            link(invite, recent);
+            history.add(recent);
+        }
+
+        QueryCount count = QueryCount.measure(() -> assertEquals(2, archiveBatch()));
+
+        // The page of events, their eager logistics and one participant query; only events and logistics are loaded
+        count.selectsAtMost(4).rowsLoadedAtMost(4);
+        ArchivedEvent archived = transactionTemplate.execute(status -> {
+            ArchivedEvent found = archivedEventRepository.findById(first.getIdEvent()).orElseThrow(IllegalStateException::new);
+            found.getParticipantIds().size();
+            found.getTaches().size();
+            return found;
+        });
+        assertEquals(new HashSet<>(Arrays.asList(organisateur.getIdPart(), invite.getIdPart())), archived.getParticipantIds());
+        assertEquals(EnumSet.of(Tache.ORGANISATEUR, Tache.INVITE), archived.getTaches());
+        assertEquals(0, links("participant_events", "events_id_event", first, second));
+        assertEquals(20, links("participant_events", "events_id_event", history.toArray(new Event[0])));
+    }
+
+    @Test
+    void testArchive_SecondRunResumesWhereFirstStopped() {
+        Participant participant = participant("Gharbi", "Sarra", Tache.INVITE);
+        List<Integer> old = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            old.add(event("Old-" + i, OLD.plusDays(i), participant, logistics(true, 2f, 1)).getIdEvent());
+        }
+        Event recent = event("Recent", LocalDate.now().plusDays(5), participant, logistics(true, 1f, 1));
+
+        // An interrupted run: only the first batch made it
+        assertEquals(2, archiveBatch());
+        assertTrue(archivedEventRepository.existsById(old.get(0)));
+        assertTrue(archivedEventRepository.existsById(old.get(1)));
+
+        archiveServices.archive();
+
+        for (Integer idEvent : old) {
+            assertTrue(archivedEventRepository.existsById(idEvent));
+            assertFalse(eventRepository.existsById(idEvent));
+        }
+        assertEquals(5, archivedEventRepository.count());
+        assertEquals(5, archivedLogisticsRepository.count());
+        assertEquals(Collections.singletonList(recent.getIdEvent()), ids(eventRepository.findAll()));
+        assertEquals(0, archiveBatch());
+    }
+
+    @Test
+    void testArchiveBatch_ReusedIdFailsInsteadOfOverwriting() {
+        Event event = event("Old", OLD, null, logistics(true, 10f, 3));
+        archivedEventRepository.save(new ArchivedEvent(event.getIdEvent(), "Already archived", OLD, OLD, 0f, 0, 0d,
+                new HashSet<>(), EnumSet.noneOf(Tache.class)));
+
+        assertThrows(DataAccessException.class, this::archiveBatch);
+
+        assertEquals("Already archived", archivedEventRepository.findById(event.getIdEvent())
+                .orElseThrow(IllegalStateException::new).getDescription());
+        assertTrue(eventRepository.existsById(event.getIdEvent()));
+        assertEquals(1, logisticsRepository.count());
+    }
+
+    private int archiveBatch() {
+        Integer moved = transactionTemplate.execute(status -> archiveServices.archiveBatch(archiveServices.getArchiveHorizon()));
+        return moved == null ? 0 : moved;
+    }
+
+    private int links(String table, String column, Event... events) {
+        int count = 0;
+        for (Event event : events) {
+            Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE " + column + " = ?",
+                    Integer.class, event.getIdEvent());
+            count += rows == null ? 0 : rows;
+        }
+        return count;
+    }
+
+    private void link(Participant participant, Event event) {
+        transactionTemplate.executeWithoutResult(status -> participantRepository.findById(participant.getIdPart())
+                .orElseThrow(IllegalStateException::new).getEvents().add(eventRepository.getReferenceById(event.getIdEvent())));
+    }
+
+    private static List<Integer> ids(List<Event> events) {
+        List<Integer> ids = new ArrayList<>();
+        for (Event event : events) {
+            ids.add(event.getIdEvent());
+        }
+        return ids;
+    }
+
+    private Participant participant(String nom, String prenom, Tache tache) {
+        Participant participant = new Participant();
+        participant.setNom(nom);
+        participant.setPrenom(prenom);
+        participant.setTache(tache);
+        participant.setEvents(new HashSet<>());
+        return participantRepository.save(participant);
+    }
+
+    private Logistics logistics(boolean reserve, float prixUnit, int quantite) {
+        return logisticsRepository.save(new Logistics(0, "Chaises", reserve, prixUnit, quantite));
+    }
+
+    private Event event(String description, LocalDate dateDebut, Participant participant, Logistics logistics) {
+        return transactionTemplate.execute(status -> {
+            Event event = new Event();
+            event.setDescription(description);
+            event.setDateDebut(dateDebut);
+            event.setDateFin(dateDebut.plusDays(1));
+            event.setLogistics(new HashSet<>(Collections.singletonList(logistics)));
+            Event saved = eventRepository.save(event);
+            if (participant != null) {
+                Participant owner = participantRepository.findById(participant.getIdPart()).orElseThrow(IllegalStateException::new);
+                owner.getEvents().add(saved);
+            }
+            return saved;
+        });
+    }
+}
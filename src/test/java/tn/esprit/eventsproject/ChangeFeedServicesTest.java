@@ -0,0 +1,203 @@
+package tn.esprit.eventsproject;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+import tn.esprit.eventsproject.dto.ParticipantDTO;
+import tn.esprit.eventsproject.entities.ChangeRecord;
+import tn.esprit.eventsproject.entities.ChangeType;
+import tn.esprit.eventsproject.entities.Participant;
+import tn.esprit.eventsproject.entities.Tache;
+import tn.esprit.eventsproject.repositories.PendingChangeRepository;
+import tn.esprit.eventsproject.repositories.RelayLockRepository;
+import tn.esprit.eventsproject.services.IChangeFeedServices;
+import tn.esprit.eventsproject.services.IEventServices;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+//Change feed on H2: outbox rows follow the business transaction, the relay keeps offsets ordered and wakes long-polls
+@ActiveProfiles("it")
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "feed.flush-delay-ms=3600000")
+class ChangeFeedServicesTest {
+    @Autowired
+    private IChangeFeedServices changeFeedServices;
+    @Autowired
+    private IEventServices eventServices;
+    @Autowired
+    private PendingChangeRepository pendingChangeRepository;
+    @Autowired
+    private RelayLockRepository relayLockRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM participant");
+        jdbcTemplate.execute("DELETE FROM pending_change");
+    }
+
+    @Test
+    void testRecord_RolledBackWriteLeavesNoChange() {
+        long head = head();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventServices.addParticipant(participantDTO("Tounsi"));
+            status.setRollbackOnly();
+        });
+        changeFeedServices.flush();
+
+        assertEquals(0, pendingChangeRepository.count());
+        assertEquals(head, head());
+    }
+
+    @Test
+    void testRecord_RequiresTheBusinessTransaction() {
+        assertThrows(IllegalTransactionStateException.class,
+                () -> changeFeedServices.record(ChangeType.PARTICIPANT_ADDED, 1, "Outside any transaction"));
+    }
+
+    @Test
+    void testFlush_RelaysInCommitOrderAndWakesAllWaitersWithOneRead() {
+        long head = head();
+        List<DeferredResult<List<ChangeRecord>>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(changeFeedServices.poll(head, 100));
+        }
+        for (DeferredResult<List<ChangeRecord>> result : results) {
+            assertFalse(result.hasResult());
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (String nom : new String[]{"Gharbi", "Mejri", "Jaziri"}) {
+            ids.add(eventServices.addParticipant(participantDTO(nom)).getIdPart());
+        }
+        assertEquals(3, pendingChangeRepository.count());
+
+        QueryCount count = QueryCount.measure(() -> changeFeedServices.flush());
+
+        // Relay lock, outbox batch, the relayed rows, the outbox delete and a single feed read for every waiter
+        count.selectsAtMost(3).inserts(3).deletes(1);
+        assertEquals(0, pendingChangeRepository.count());
+        for (DeferredResult<List<ChangeRecord>> result : results) {
+            @SuppressWarnings("unchecked")
+            List<ChangeRecord> changes = (List<ChangeRecord>) result.getResult();
+            assertNotNull(changes);
+            assertEquals(3, changes.size());
+            for (int i = 0; i < 3; i++) {
+                assertEquals(ChangeType.PARTICIPANT_ADDED, changes.get(i).getTypeChange());
+                assertEquals((int) ids.get(i), changes.get(i).getIdEntity());
+                if (i > 0) {
+                    assertTrue(changes.get(i).getIdChange() > changes.get(i - 1).getIdChange());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFlush_NothingPendingIsANoOp() {
+        changeFeedServices.flush();
+
+        QueryCount count = QueryCount.measure(() -> changeFeedServices.flush());
+
+        // The relay lock and the empty outbox batch
+        count.statementsAtMost(2).inserts(0).deletes(0);
+    }
+
+    @Test
+    void testFlush_WaitsForTheRelayOfAnotherInstance() throws Exception {
+        changeFeedServices.flush();
+        long head = head();
+        eventServices.addParticipant(participantDTO("Tounsi"));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // Stands in for another instance in the middle of its relay batch
+        Thread otherInstance = new Thread(() -> transactionTemplate.executeWithoutResult(status -> {
+            relayLockRepository.lock("change-feed");
+            locked.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        otherInstance.start();
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        Thread relay = new Thread(() -> changeFeedServices.flush());
+        relay.start();
+        relay.join(300);
+
+        assertTrue(relay.isAlive());
+        assertEquals(head, head());
+        release.countDown();
+        otherInstance.join(5000);
+        relay.join(5000);
+        assertFalse(relay.isAlive());
+        assertEquals(0, pendingChangeRepository.count());
+        assertEquals(head + 1, head());
+    }
+
+    @Test
+    void testTail_LongPollAnswersOnceTheChangeIsRelayed() throws Exception {
+        long head = head();
+        MvcResult pending = mockMvc.perform(get("/feed/{offset}", head).param("limit", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        Participant participant = eventServices.addParticipant(participantDTO("Tounsi"));
+        changeFeedServices.flush();
+
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].typeChange").value("PARTICIPANT_ADDED"))
+                .andExpect(jsonPath("$[0].idEntity").value(participant.getIdPart()));
+    }
+
+    @Test
+    void testTail_AnswersAtOnceWhenBehind() throws Exception {
+        eventServices.addParticipant(participantDTO("Tounsi"));
+        changeFeedServices.flush();
+        long head = head();
+
+        MvcResult behind = mockMvc.perform(get("/feed/{offset}", head - 1))
+                .andExpect(request().asyncStarted())
+                .andExpect(request().asyncResult(hasSize(1)))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(behind))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].idChange").value(head));
+    }
+
+    private long head() {
+        Long head = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id_change), 0) FROM change_record", Long.class);
+        return head == null ? 0 : head;
+    }
+
+    private static ParticipantDTO participantDTO(String nom) {
+        return new ParticipantDTO(0, nom, "Feed", Tache.INVITE, null);
+    }
+}
@@ -0,0 +1,78 @@
+package tn.esprit.eventsproject;
+
+import org.junit.jupiter.api.Test;
+import tn.esprit.eventsproject.services.CostBuckets;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CostBucketsTest {
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Test
+    void testSum_InclusiveRangePerRow() {
+        CostBuckets buckets = new CostBuckets(2);
+        buckets.add(0, TODAY, 2, 10.5, 1);
+        buckets.add(0, TODAY.plusDays(3), 3, 4.5, 1);
+        buckets.add(1, TODAY, 100, 100, 1);
+
+        assertArrayEquals(new double[]{5, 15, 2}, buckets.sum(0, TODAY, TODAY.plusDays(3)));
+        assertArrayEquals(new double[]{2, 10.5, 1}, buckets.sum(0, TODAY, TODAY.plusDays(2)));
+        assertArrayEquals(new double[]{0, 0, 0}, buckets.sum(0, TODAY.plusDays(4), TODAY.plusDays(10)));
+        assertArrayEquals(new double[]{100, 100, 1}, buckets.sum(1, TODAY.minusYears(50), TODAY.plusYears(50)));
+    }
+
+    @Test
+    void testAdd_GrowsForwardByDoublingKeepingEarlierDays() {
+        CostBuckets buckets = new CostBuckets(1);
+        int days = buckets.getDays();
+        buckets.add(0, TODAY, 1, 1, 1);
+
+        LocalDate later = TODAY.plusDays(400);
+        assertTrue(buckets.add(0, later, 2, 2, 1));
+
+        assertEquals(2 * days, buckets.getDays());
+        assertArrayEquals(new double[]{1, 1, 1}, buckets.sum(0, TODAY, TODAY));
+        assertArrayEquals(new double[]{2, 2, 1}, buckets.sum(0, later, later));
+    }
+
+    @Test
+    void testAdd_GrowsBackwardShiftingOrigin() {
+        CostBuckets buckets = new CostBuckets(1);
+        LocalDate firstDay = buckets.getFirstDay();
+        buckets.add(0, TODAY, 1, 1, 1);
+
+        LocalDate earlier = firstDay.minusYears(3);
+        assertTrue(buckets.add(0, earlier, 4, 4, 1));
+
+        assertFalse(buckets.getFirstDay().isAfter(earlier));
+        assertArrayEquals(new double[]{4, 4, 1}, buckets.sum(0, earlier, earlier));
+        assertArrayEquals(new double[]{1, 1, 1}, buckets.sum(0, TODAY, TODAY));
+        assertArrayEquals(new double[]{5, 5, 2}, buckets.sum(0, earlier, TODAY));
+    }
+
+    @Test
+    void testAdd_FarOffDateRejectedWithoutGrowing() {
+        CostBuckets buckets = new CostBuckets(3);
+        int days = buckets.getDays();
+
+        assertFalse(buckets.add(0, LocalDate.of(9999, 12, 31), 1, 1, 1));
+        assertFalse(buckets.add(0, TODAY.minusDays(CostBuckets.MAX_DAYS), 1, 1, 1));
+        assertFalse(buckets.add(0, LocalDate.MAX, 1, 1, 1));
+
+        assertEquals(days, buckets.getDays());
+        assertArrayEquals(new double[]{0, 0, 0}, buckets.sum(0, LocalDate.MIN, LocalDate.MAX));
+    }
+
+    @Test
+    void testAdd_WindowNeverExceedsMaxDays() {
+        CostBuckets buckets = new CostBuckets(1);
+
+        assertTrue(buckets.add(0, TODAY.plusYears(150), 1, 1, 1));
+        assertTrue(buckets.add(0, TODAY.minusYears(40), 1, 1, 1));
+
+        assertTrue(buckets.getDays() <= CostBuckets.MAX_DAYS);
+        assertArrayEquals(new double[]{2, 2, 2}, buckets.sum(0, TODAY.minusYears(40), TODAY.plusYears(150)));
+    }
+}
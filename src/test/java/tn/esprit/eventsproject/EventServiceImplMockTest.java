@@ -15,11 +15,13 @@ import tn.esprit.eventsproject.entities.Event;
 import tn.esprit.eventsproject.entities.Logistics;
 import tn.esprit.eventsproject.entities.Participant;
 import tn.esprit.eventsproject.entities.Tache;
+import tn.esprit.eventsproject.exceptions.InsufficientCapacityException;
 import tn.esprit.eventsproject.exceptions.ParticipantAlreadyExistsException;
 import tn.esprit.eventsproject.repositories.EventRepository;
 import tn.esprit.eventsproject.repositories.LogisticsRepository;
 import tn.esprit.eventsproject.repositories.ParticipantRepository;
 import tn.esprit.eventsproject.services.EventServicesImpl;
+import tn.esprit.eventsproject.services.IInventoryServices;
 
 import java.time.LocalDate;
 import java.util.*;
@@ -38,6 +40,9 @@ import static org.mockito.Mockito.*;
     @Mock
     private LogisticsRepository logisticsRepository;
 
+    @Mock
+    private IInventoryServices inventoryServices;
+
     @BeforeEach
     void setUp(){
         //Reset mocks to avoid test interferences
@@ -219,6 +224,27 @@ void testAddAffectEvenParticipant_WithExistingEvents() {
         verify(eventRepository).findByDescription(descriptionEvent); // Check that findByDescription was called
     }
 
+    @Test
+    void testAddAffectLog_InsufficientCapacity() {
+        // Arrange
+        String descriptionEvent = "Annual conference";
+        LogisticsDTO logisticsDTO = new LogisticsDTO(0, "Chaises", true, 5f, 300);
+
+        Event event = new Event();
+        event.setDescription(descriptionEvent);
+        event.setLogistics(new HashSet<>());
+
+        when(eventRepository.findByDescription(descriptionEvent)).thenReturn(event);
+        doThrow(new InsufficientCapacityException("Chaises", 300, 10)).when(inventoryServices).reserve("Chaises", 300);
+
+        // Act & Assert
+        assertThrows(InsufficientCapacityException.class, () -> eventServices.addAffectLog(logisticsDTO, descriptionEvent));
+
+        assertTrue(event.getLogistics().isEmpty());
+        verify(logisticsRepository, never()).save(any(Logistics.class));
+        verify(inventoryServices, never()).release(anyString(), anyInt());
+    }
+
     @Test
     void testAddAffectLog_EventNotFound() {
         // Arrange
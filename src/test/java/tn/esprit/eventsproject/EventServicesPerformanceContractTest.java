@@ -0,0 +1,174 @@
+package tn.esprit.eventsproject;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.esprit.eventsproject.dto.EventDTO;
+import tn.esprit.eventsproject.dto.LogisticsDTO;
+import tn.esprit.eventsproject.dto.ParticipantDTO;
+import tn.esprit.eventsproject.entities.Event;
+import tn.esprit.eventsproject.entities.Logistics;
+import tn.esprit.eventsproject.entities.Participant;
+import tn.esprit.eventsproject.entities.Tache;
+import tn.esprit.eventsproject.repositories.EventRepository;
+import tn.esprit.eventsproject.repositories.LogisticsRepository;
+import tn.esprit.eventsproject.repositories.ParticipantRepository;
+import tn.esprit.eventsproject.services.IEventServices;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Real repositories on H2: each IEventServices call must stay within its SQL statement and row budget
+@ActiveProfiles("it")
+@SpringBootTest
+class EventServicesPerformanceContractTest {
+    @Autowired
+    private IEventServices eventServices;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private ParticipantRepository participantRepository;
+    @Autowired
+    private LogisticsRepository logisticsRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM participant_events");
+        jdbcTemplate.execute("DELETE FROM event_logistics");
+        jdbcTemplate.execute("DELETE FROM event");
+        jdbcTemplate.execute("DELETE FROM logistics");
+        jdbcTemplate.execute("DELETE FROM participant");
+        jdbcTemplate.execute("DELETE FROM pending_change");
+    }
+
+    @Test
+    void testAddParticipant_OneLookupOneInsert() {
+        ParticipantDTO participantDTO = new ParticipantDTO(0, "Tounsi", "Ahmed", Tache.INVITE, null);
+
+        QueryCount count = call(() -> eventServices.addParticipant(participantDTO));
+
+        // Every write also inserts its change feed outbox row
+        count.selectsAtMost(1).inserts(2).updates(0).deletes(0).rowsLoadedAtMost(0).rowsWritten(2, 0, 0);
+    }
+
+    @Test
+    void testAddAffectEvenParticipant_OneLookupPerParticipant() {
+        Participant first = participant("Gharbi", "Sarra", Tache.INVITE);
+        Participant second = participant("Mejri", "Omar", Tache.SERVEUR);
+        EventDTO eventDTO = eventDTO("Seminar");
+        eventDTO.setParticipants(new HashSet<>(Arrays.asList(participantDTO(first), participantDTO(second))));
+
+        QueryCount count = call(() -> eventServices.addAffectEvenParticipant(eventDTO));
+
+        count.selectsAtMost(2).inserts(2).updates(0).deletes(0).rowsLoadedAtMost(2).rowsWritten(2, 0, 0);
+    }
+
+    @Test
+    void testAddAffectEvenParticipantById_InsertsEventAndLink() {
+        Participant participant = participant("Jaziri", "Ines", Tache.ANIMATEUR);
+
+        QueryCount count = call(() -> eventServices.addAffectEvenParticipant(eventDTO("Workshop"), participant.getIdPart()));
+
+        // participant, its (empty) events collection, then the event row, the participant_events link and the outbox row
+        count.selectsAtMost(2).inserts(3).updates(0).deletes(0).rowsLoadedAtMost(1).rowsWritten(2, 0, 0);
+    }
+
+    @Test
+    void testAddAffectLog_LookupByDescriptionAndTwoInserts() {
+        Participant organiser = participant("Tounsi", "Ahmed", Tache.ORGANISATEUR);
+        event("Conference", LocalDate.now().plusDays(10), organiser, logistics(true, 10f, 2));
+
+        QueryCount count = call(() -> eventServices.addAffectLog(new LogisticsDTO(0, "Sono", true, 50f, 1), "Conference"));
+
+        // Includes the cost analytics update, which looks the event and its roles up again
+        count.selectsAtMost(4).inserts(3).updates(0).deletes(0).rowsLoadedAtMost(3).rowsWritten(2, 0, 0);
+    }
+
+    @Test
+    void testGetLogisticsDates_OneQueryPlusOneLogisticsLoadPerEvent() {
+        LocalDate start = LocalDate.of(2030, 1, 1);
+        for (int i = 0; i < 3; i++) {
+            event("InRange" + i, start.plusDays(i), null, logistics(true, 5f, 4));
+        }
+        event("OutOfRange", start.plusYears(1), null, logistics(true, 5f, 4));
+        AtomicReference<List<Logistics>> result = new AtomicReference<>();
+
+        QueryCount count = call(() -> result.set(eventServices.getLogisticsDates(start, start.plusDays(30))));
+
+        assertEquals(3, result.get().size());
+        // EAGER logistics are fetched per event: the budget grows with the number of matching events, never beyond
+        count.selectsAtMost(1 + 3).inserts(0).updates(0).deletes(0).rowsLoadedAtMost(3 + 3);
+    }
+
+    @Test
+    void testCalculCout_OneUpdatePerEvent() {
+        Participant organiser = participant("Tounsi", "Ahmed", Tache.ORGANISATEUR);
+        Event first = event("Gala", LocalDate.now().plusDays(5), organiser, logistics(true, 10f, 3));
+        Event second = event("Forum", LocalDate.now().plusDays(6), organiser, logistics(true, 20f, 1));
+
+        QueryCount count = call(() -> eventServices.calculCout());
+
+        count.selectsAtMost(1 + 2).inserts(0).updates(2).deletes(0).rowsWritten(0, 2, 0);
+        assertEquals(30f, eventRepository.findById(first.getIdEvent()).orElseThrow(IllegalStateException::new).getCout());
+        assertEquals(20f, eventRepository.findById(second.getIdEvent()).orElseThrow(IllegalStateException::new).getCout());
+    }
+
+    // One unit of work per call, like a web request with open-in-view
+    private QueryCount call(Runnable serviceCall) {
+        return QueryCount.measure(() -> transactionTemplate.executeWithoutResult(status -> serviceCall.run()));
+    }
+
+    private Participant participant(String nom, String prenom, Tache tache) {
+        Participant participant = new Participant();
+        participant.setNom(nom);
+        participant.setPrenom(prenom);
+        participant.setTache(tache);
+        participant.setEvents(new HashSet<>());
+        return participantRepository.save(participant);
+    }
+
+    private Logistics logistics(boolean reserve, float prixUnit, int quantite) {
+        return logisticsRepository.save(new Logistics(0, "Chaises", reserve, prixUnit, quantite));
+    }
+
+    private Event event(String description, LocalDate dateDebut, Participant participant, Logistics logistics) {
+        return transactionTemplate.execute(status -> {
+            Event event = new Event();
+            event.setDescription(description);
+            event.setDateDebut(dateDebut);
+            event.setDateFin(dateDebut.plusDays(1));
+            event.setLogistics(new HashSet<>(Collections.singletonList(logistics)));
+            Event saved = eventRepository.save(event);
+            if (participant != null) {
+                Participant owner = participantRepository.findById(participant.getIdPart()).orElseThrow(IllegalStateException::new);
+                owner.getEvents().add(saved);
+            }
+            return saved;
+        });
+    }
+
+    private static EventDTO eventDTO(String description) {
+        EventDTO eventDTO = new EventDTO();
+        eventDTO.setDescription(description);
+        eventDTO.setDateDebut(LocalDate.now().plusDays(30));
+        eventDTO.setDateFin(LocalDate.now().plusDays(31));
+        return eventDTO;
+    }
+
+    private static ParticipantDTO participantDTO(Participant participant) {
+        ParticipantDTO participantDTO = new ParticipantDTO();
+        participantDTO.setIdPart(participant.getIdPart());
+        return participantDTO;
+    }
+}
@@ -0,0 +1,211 @@
+package tn.esprit.eventsproject;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import tn.esprit.eventsproject.dto.EventDTO;
+import tn.esprit.eventsproject.dto.LogisticsDTO;
+import tn.esprit.eventsproject.entities.IdempotencyRecord;
+import tn.esprit.eventsproject.entities.Logistics;
+import tn.esprit.eventsproject.exceptions.IdempotencyKeyReusedException;
+import tn.esprit.eventsproject.repositories.IdempotencyRecordRepository;
+import tn.esprit.eventsproject.services.IdempotencyServicesImpl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+//Idempotent writes against a mocked store: coalescing, failures, request hashes, TTL, LRU bound and the database fallback
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServicesImplTest {
+    private static final String SCOPE = "addAffectLog/Event-1";
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private IdempotencyServicesImpl idempotencyServices;
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        idempotencyServices = service(10_000, 1440);
+    }
+
+    @Test
+    void testExecute_ConcurrentCallersRunTheActionOnce() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<Logistics> first = pool.submit(() -> idempotencyServices.execute("key-1", SCOPE, logisticsDTO(5),
+                    Logistics.class, () -> {
+                        started.countDown();
+                        await(release);
+                        return logistics(runs.incrementAndGet());
+                    }));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            Future<Logistics> second = pool.submit(() -> idempotencyServices.execute("key-1", SCOPE, logisticsDTO(5),
+                    Logistics.class, () -> logistics(runs.incrementAndGet())));
+            // Give the second caller time to join the running execution before it completes
+            Thread.sleep(100);
+            release.countDown();
+
+            assertEquals(1, first.get(10, TimeUnit.SECONDS).getIdLog());
+            assertEquals(1, second.get(10, TimeUnit.SECONDS).getIdLog());
+            assertEquals(1, runs.get());
+            verify(idempotencyRecordRepository, times(1)).save(any(IdempotencyRecord.class));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testExecute_FailureIsNotCached() {
+        assertThrows(IllegalStateException.class, () -> idempotencyServices.execute("key-1", SCOPE, logisticsDTO(5),
+                Logistics.class, () -> {
+                    runs.incrementAndGet();
+                    throw new IllegalStateException("Database down");
+                }));
+        verify(idempotencyRecordRepository, never()).save(any(IdempotencyRecord.class));
+
+        Logistics retried = run("key-1", logisticsDTO(5));
+
+        assertEquals(2, retried.getIdLog());
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void testExecute_SameKeyAndRequestReplaysTheFirstResponse() {
+        Logistics first = run("key-1", logisticsDTO(5));
+
+        assertSame(first, run("key-1", logisticsDTO(5)));
+        // Keys are scoped by endpoint
+        assertEquals(2, idempotencyServices.execute("key-1", "addAffectLog/Event-2", logisticsDTO(5), Logistics.class,
+                () -> logistics(runs.incrementAndGet())).getIdLog());
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void testExecute_SameKeyWithADifferentRequestIsRejected() {
+        run("key-1", logisticsDTO(5));
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> run("key-1", logisticsDTO(6)));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void testExecute_SetOrderDoesNotChangeTheRequestHash() {
+        LogisticsDTO chaises = new LogisticsDTO(0, "Chaises", true, 2f, 5);
+        LogisticsDTO tables = new LogisticsDTO(0, "Tables", true, 9f, 1);
+        EventDTO sent = eventDTO(chaises, tables);
+        EventDTO resent = eventDTO(tables, chaises);
+
+        Logistics first = idempotencyServices.execute("key-1", SCOPE, sent, Logistics.class, () -> logistics(runs.incrementAndGet()));
+
+        assertSame(first, idempotencyServices.execute("key-1", SCOPE, resent, Logistics.class, () -> logistics(runs.incrementAndGet())));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void testExecute_NoKeyAlwaysRuns() {
+        run(null, logisticsDTO(5));
+        run(" ", logisticsDTO(5));
+
+        assertEquals(2, runs.get());
+        verifyNoInteractions(idempotencyRecordRepository);
+    }
+
+    @Test
+    void testExecute_ExpiredResponseRunsAgain() throws Exception {
+        idempotencyServices = service(10_000, 0);
+        run("key-1", logisticsDTO(5));
+        Thread.sleep(5);
+
+        assertEquals(2, run("key-1", logisticsDTO(5)).getIdLog());
+    }
+
+    @Test
+    void testExecute_LeastRecentlyUsedKeyEvictedPastTheBound() {
+        idempotencyServices = service(2, 1440);
+        run("key-a", logisticsDTO(5));
+        run("key-b", logisticsDTO(5));
+        // Touching key-a leaves key-b as the eldest entry
+        run("key-a", logisticsDTO(5));
+        run("key-c", logisticsDTO(5));
+        assertEquals(3, runs.get());
+
+        assertEquals(1, run("key-a", logisticsDTO(5)).getIdLog());
+        // Evicted and, with nothing returned by the mocked store, run again
+        assertEquals(4, run("key-b", logisticsDTO(5)).getIdLog());
+    }
+
+    @Test
+    void testExecute_FallsBackToTheStoredResponse() {
+        ArgumentCaptor<IdempotencyRecord> stored = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        run("key-1", logisticsDTO(5));
+        verify(idempotencyRecordRepository).save(stored.capture());
+        when(idempotencyRecordRepository.findById(SCOPE + ":key-1")).thenReturn(Optional.of(stored.getValue()));
+
+        // A fresh instance has nothing in memory, as after a restart
+        idempotencyServices = service(10_000, 1440);
+        Logistics replayed = run("key-1", logisticsDTO(5));
+
+        assertEquals(1, replayed.getIdLog());
+        assertEquals(1, runs.get());
+        assertThrows(IdempotencyKeyReusedException.class, () -> service(10_000, 1440).execute("key-1", SCOPE,
+                logisticsDTO(6), Logistics.class, () -> logistics(runs.incrementAndGet())));
+    }
+
+    @Test
+    void testExecute_ExpiredStoredResponseIgnored() {
+        when(idempotencyRecordRepository.findById(SCOPE + ":key-1")).thenReturn(Optional.of(
+                new IdempotencyRecord(SCOPE + ":key-1", null, "{\"idLog\":99}", LocalDateTime.now().minusDays(2))));
+
+        assertEquals(1, run("key-1", logisticsDTO(5)).getIdLog());
+    }
+
+    private IdempotencyServicesImpl service(int maxEntries, long ttlMinutes) {
+        IdempotencyServicesImpl service = new IdempotencyServicesImpl(idempotencyRecordRepository, objectMapper);
+        ReflectionTestUtils.setField(service, "maxEntries", maxEntries);
+        ReflectionTestUtils.setField(service, "ttlMinutes", ttlMinutes);
+        return service;
+    }
+
+    private Logistics run(String idempotencyKey, Object request) {
+        return idempotencyServices.execute(idempotencyKey, SCOPE, request, Logistics.class,
+                () -> logistics(runs.incrementAndGet()));
+    }
+
+    private static LogisticsDTO logisticsDTO(int quantite) {
+        return new LogisticsDTO(0, "Chaises", true, 2f, quantite);
+    }
+
+    private static EventDTO eventDTO(LogisticsDTO... logistics) {
+        return new EventDTO(0, "Event-1", LocalDate.of(2030, 1, 7), LocalDate.of(2030, 1, 8), 0f,
+                null, new LinkedHashSet<>(Arrays.asList(logistics)));
+    }
+
+    private static Logistics logistics(int idLog) {
+        return new Logistics(idLog, "Chaises", true, 2f, 5);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package tn.esprit.eventsproject;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.esprit.eventsproject.dto.LogisticsDTO;
+import tn.esprit.eventsproject.entities.Event;
+import tn.esprit.eventsproject.entities.InventoryItem;
+import tn.esprit.eventsproject.exceptions.InsufficientCapacityException;
+import tn.esprit.eventsproject.repositories.ArchivedEventRepository;
+import tn.esprit.eventsproject.repositories.ArchivedLogisticsRepository;
+import tn.esprit.eventsproject.repositories.EventRepository;
+import tn.esprit.eventsproject.repositories.LogisticsRepository;
+import tn.esprit.eventsproject.services.IArchiveServices;
+import tn.esprit.eventsproject.services.IEventServices;
+import tn.esprit.eventsproject.services.IInventoryServices;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Many concurrent addAffectLog calls against one limited item type on H2: what is stored never exceeds the capacity
+@ActiveProfiles("it")
+@SpringBootTest
+class InventoryServicesTest {
+    private static final String ITEM = "Projecteur";
+    private static final int THREADS = 16;
+
+    @Autowired
+    private IEventServices eventServices;
+    @Autowired
+    private IInventoryServices inventoryServices;
+    @Autowired
+    private IArchiveServices archiveServices;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private LogisticsRepository logisticsRepository;
+    @Autowired
+    private ArchivedEventRepository archivedEventRepository;
+    @Autowired
+    private ArchivedLogisticsRepository archivedLogisticsRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM event_logistics");
+        jdbcTemplate.execute("DELETE FROM event");
+        jdbcTemplate.execute("DELETE FROM logistics");
+        jdbcTemplate.execute("DELETE FROM pending_change");
+        jdbcTemplate.execute("DELETE FROM inventory_item");
+        archivedEventRepository.deleteAll();
+        archivedLogisticsRepository.deleteAll();
+        inventoryServices.reconcile();
+    }
+
+    @Test
+    void testAddAffectLog_ConcurrentReservationsNeverOversell() throws Exception {
+        long capacite = 60;
+        event("Conference", LocalDate.now().plusDays(10));
+        inventoryServices.setCapacite(ITEM, capacite);
+        AtomicInteger granted = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < 10; i++) {
+                int quantite = 1 + random.nextInt(3);
+                try {
+                    eventServices.addAffectLog(new LogisticsDTO(0, ITEM, true, 10f, quantite), "Conference");
+                    granted.addAndGet(quantite);
+                } catch (InsufficientCapacityException e) {
+                    refused.incrementAndGet();
+                }
+            }
+        });
+
+        // 16 threads asking for up to 320 units: the stock runs out, and what is stored is exactly what was granted
+        assertTrue(refused.get() > 0);
+        long stored = logisticsRepository.sumReservedQuantite(ITEM);
+        assertEquals(granted.get(), stored);
+        assertTrue(stored <= capacite, "Oversold: " + stored + " stored for a capacity of " + capacite);
+        InventoryItem item = inventoryServices.getItem(ITEM);
+        assertEquals(stored, item.getQuantiteReservee());
+
+        // A restart rebuilds the very same state from the database
+        inventoryServices.reconcile();
+        assertEquals(stored, inventoryServices.getItem(ITEM).getQuantiteReservee());
+    }
+
+    @Test
+    void testAddAffectLog_UnreservedAndUnlimitedItemsAreNotCounted() {
+        event("Conference", LocalDate.now().plusDays(10));
+        inventoryServices.setCapacite(ITEM, 2);
+
+        eventServices.addAffectLog(new LogisticsDTO(0, ITEM, false, 10f, 50), "Conference");
+        eventServices.addAffectLog(new LogisticsDTO(0, "Sono", true, 10f, 50), "Conference");
+        eventServices.addAffectLog(new LogisticsDTO(0, ITEM, true, 10f, 2), "Conference");
+
+        assertEquals(2, inventoryServices.getItem(ITEM).getQuantiteReservee());
+        assertNull(inventoryServices.getItem("Sono"));
+        assertThrows(InsufficientCapacityException.class,
+                () -> eventServices.addAffectLog(new LogisticsDTO(0, ITEM, true, 10f, 1), "Conference"));
+        assertEquals(3, logisticsRepository.count());
+    }
+
+    @Test
+    void testAddAffectLog_RollbackAfterSaveGivesTheUnitsBack() {
+        event("Conference", LocalDate.now().plusDays(10));
+        inventoryServices.setCapacite(ITEM, 5);
+
+        // Fails after save() returned, like a failed outbox insert or link flush at commit
+        transactionTemplate.executeWithoutResult(status -> {
+            eventServices.addAffectLog(new LogisticsDTO(0, ITEM, true, 10f, 4), "Conference");
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, logisticsRepository.count());
+        assertEquals(0, inventoryServices.getItem(ITEM).getQuantiteReservee());
+        eventServices.addAffectLog(new LogisticsDTO(0, ITEM, true, 10f, 5), "Conference");
+        assertEquals(5, inventoryServices.getItem(ITEM).getQuantiteReservee());
+    }
+
+    @Test
+    void testAddAffectLog_ReservedWithoutPositiveQuantityRefused() {
+        event("Conference", LocalDate.now().plusDays(10));
+        inventoryServices.setCapacite(ITEM, 5);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> eventServices.addAffectLog(new LogisticsDTO(0, ITEM, true, 10f, 0), "Conference"));
+        assertThrows(IllegalArgumentException.class,
+                () -> eventServices.addAffectLog(new LogisticsDTO(0, ITEM, true, 10f, -3), "Conference"));
+
+        assertEquals(0, logisticsRepository.count());
+        inventoryServices.reconcile();
+        assertEquals(0, inventoryServices.getItem(ITEM).getQuantiteReservee());
+        eventServices.addAffectLog(new LogisticsDTO(0, ITEM, true, 10f, 5), "Conference");
+    }
+
+    @Test
+    void testArchive_ReleasesArchivedReservationsLikeAReconcile() {
+        event("Old", LocalDate.now().minusYears(3));
+        event("Upcoming", LocalDate.now().plusDays(10));
+        inventoryServices.setCapacite(ITEM, 10);
+        eventServices.addAffectLog(new LogisticsDTO(0, ITEM, true, 10f, 4), "Old");
+        eventServices.addAffectLog(new LogisticsDTO(0, ITEM, true, 10f, 3), "Upcoming");
+        assertEquals(7, inventoryServices.getItem(ITEM).getQuantiteReservee());
+
+        archiveServices.archive();
+
+        assertEquals(3, inventoryServices.getItem(ITEM).getQuantiteReservee());
+        inventoryServices.reconcile();
+        assertEquals(3, inventoryServices.getItem(ITEM).getQuantiteReservee());
+    }
+
+    private void event(String description, LocalDate dateDebut) {
+        Event event = new Event();
+        event.setDescription(description);
+        event.setDateDebut(dateDebut);
+        event.setDateFin(dateDebut.plusDays(1));
+        event.setLogistics(new HashSet<>());
+        eventRepository.save(event);
+    }
+
+    private static void runConcurrently(Runnable task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                task.run();
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(120, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+    }
+}
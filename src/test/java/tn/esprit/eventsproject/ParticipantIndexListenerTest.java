@@ -0,0 +1,76 @@
+package tn.esprit.eventsproject;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.esprit.eventsproject.dto.ParticipantDTO;
+import tn.esprit.eventsproject.entities.Participant;
+import tn.esprit.eventsproject.entities.Tache;
+import tn.esprit.eventsproject.repositories.ParticipantRepository;
+import tn.esprit.eventsproject.services.IParticipantSearchServices;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Participant writes on H2 reach the search index through the JPA listener, and only once committed
+@ActiveProfiles("it")
+@SpringBootTest
+class ParticipantIndexListenerTest {
+    @Autowired
+    private IParticipantSearchServices participantSearchServices;
+    @Autowired
+    private ParticipantRepository participantRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        participantRepository.deleteAll();
+    }
+
+    @Test
+    void testSave_IndexedOnInsertAndReindexedOnUpdate() {
+        Participant participant = participantRepository.save(new Participant(0, "Khelifi", "Yassine", Tache.INVITE, null));
+
+        List<ParticipantDTO> found = search("khel", null);
+        assertEquals(1, found.size());
+        assertEquals(participant.getIdPart(), found.get(0).getIdPart());
+
+        participant.setNom("Bouazizi");
+        participant.setTache(Tache.SERVEUR);
+        participantRepository.save(participant);
+
+        assertTrue(search("khel", null).isEmpty());
+        assertEquals(1, search("bouaz", Tache.SERVEUR).size());
+        assertTrue(search("bouaz", Tache.INVITE).isEmpty());
+    }
+
+    @Test
+    void testDelete_RemovedFromTheIndex() {
+        Participant participant = participantRepository.save(new Participant(0, "Chebbi", "Mouna", Tache.ANIMATEUR, null));
+        assertEquals(1, search("chebbi", null).size());
+
+        participantRepository.delete(participant);
+
+        assertTrue(search("chebbi", null).isEmpty());
+    }
+
+    @Test
+    void testSave_RolledBackWriteNeverSearchable() {
+        transactionTemplate.executeWithoutResult(status -> {
+            participantRepository.save(new Participant(0, "Fehri", "Walid", Tache.INVITE, null));
+            status.setRollbackOnly();
+        });
+
+        assertTrue(search("fehri", null).isEmpty());
+    }
+
+    private List<ParticipantDTO> search(String prefix, Tache tache) {
+        return participantSearchServices.search(prefix, tache, PageRequest.of(0, 10)).getContent();
+    }
+}
@@ -0,0 +1,127 @@
+package tn.esprit.eventsproject;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import tn.esprit.eventsproject.dto.ParticipantDTO;
+import tn.esprit.eventsproject.entities.Participant;
+import tn.esprit.eventsproject.entities.Tache;
+import tn.esprit.eventsproject.repositories.ParticipantRepository;
+import tn.esprit.eventsproject.services.ParticipantSearchServicesImpl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ParticipantSearchServicesImplTest {
+    @Mock
+    private ParticipantRepository participantRepository;
+
+    @InjectMocks
+    ParticipantSearchServicesImpl participantSearchServices;
+
+    @Test
+    void testSearch_PrefixMatchesNomOrPrenom() {
+        index(1, "Ben Salah", "Amine", Tache.INVITE);
+        index(2, "Trabelsi", "Bensalem", Tache.INVITE);
+        index(3, "Gharbi", "Sami", Tache.INVITE);
+
+        assertEquals(Arrays.asList(1, 2), ids(participantSearchServices.search("ben", null, PageRequest.of(0, 10))));
+        assertEquals(Arrays.asList(3), ids(participantSearchServices.search("sam", null, PageRequest.of(0, 10))));
+        assertTrue(participantSearchServices.search("x", null, PageRequest.of(0, 10)).getContent().isEmpty());
+    }
+
+    @Test
+    void testSearch_CaseAndSurroundingSpacesIgnored() {
+        index(1, "  ÉLISE ", "Martin", Tache.INVITE);
+        index(2, "Amel", "Jaziri", Tache.INVITE);
+
+        assertEquals(Arrays.asList(1), ids(participantSearchServices.search(" éli", null, PageRequest.of(0, 10))));
+        assertEquals(Arrays.asList(2), ids(participantSearchServices.search("AMEL", null, PageRequest.of(0, 10))));
+        assertEquals(Arrays.asList(2), ids(participantSearchServices.search("jAz", null, PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void testSearch_FilteredByTache() {
+        index(1, "Mejri", "Ali", Tache.ORGANISATEUR);
+        index(2, "Mejri", "Hana", Tache.INVITE);
+        index(3, "Mejri", "Omar", Tache.SERVEUR);
+
+        assertEquals(Arrays.asList(2), ids(participantSearchServices.search("mej", Tache.INVITE, PageRequest.of(0, 10))));
+        assertEquals(Arrays.asList(1, 2, 3), ids(participantSearchServices.search("mej", null, PageRequest.of(0, 10))));
+        assertTrue(participantSearchServices.search("mej", Tache.ANIMATEUR, PageRequest.of(0, 10)).getContent().isEmpty());
+    }
+
+    @Test
+    void testSearch_PagesInNameOrderAndCountsEachParticipantOnce() {
+        // Participant 5 matches on both nom and prenom
+        index(5, "Sassi", "Salma", Tache.INVITE);
+        index(4, "Salem", "Karim", Tache.INVITE);
+        index(3, "Saidi", "Nour", Tache.INVITE);
+        index(2, "Saidi", "Leila", Tache.INVITE);
+        index(1, "Ayari", "Sana", Tache.INVITE);
+
+        Slice<ParticipantDTO> first = participantSearchServices.search("sa", null, PageRequest.of(0, 2));
+        Slice<ParticipantDTO> second = participantSearchServices.search("sa", null, PageRequest.of(1, 2));
+        Slice<ParticipantDTO> last = participantSearchServices.search("sa", null, PageRequest.of(2, 2));
+
+        // saidi (2, 3), salem (4), salma (5), sana (1); sassi repeats 5
+        assertEquals(Arrays.asList(2, 3), ids(first));
+        assertTrue(first.hasNext());
+        assertEquals(Arrays.asList(4, 5), ids(second));
+        assertTrue(second.hasNext());
+        assertEquals(Arrays.asList(1), ids(last));
+        assertFalse(last.hasNext());
+    }
+
+    @Test
+    void testIndex_RenamedParticipantLeavesItsOldName() {
+        index(1, "Tounsi", "Rim", Tache.INVITE);
+        index(1, "Hamdi", "Rim", Tache.ORGANISATEUR);
+
+        assertTrue(participantSearchServices.search("tou", null, PageRequest.of(0, 10)).getContent().isEmpty());
+        Slice<ParticipantDTO> found = participantSearchServices.search("ham", Tache.ORGANISATEUR, PageRequest.of(0, 10));
+        assertEquals(Arrays.asList(1), ids(found));
+
+        participantSearchServices.remove(1);
+        assertTrue(participantSearchServices.search("", null, PageRequest.of(0, 10)).getContent().isEmpty());
+    }
+
+    @Test
+    void testRebuild_PagesSortedByIdAndReplacesTheIndex() {
+        index(9, "Stale", "Entry", Tache.INVITE);
+        when(participantRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(Arrays.asList(
+                new Participant(1, "Zribi", "Ines", Tache.INVITE, null),
+                new Participant(2, "Zarrouk", "Anis", Tache.SERVEUR, null))));
+
+        participantSearchServices.rebuild();
+
+        verify(participantRepository).findAll(PageRequest.of(0, 1000, Sort.by("idPart")));
+        assertEquals(Arrays.asList(2, 1), ids(participantSearchServices.search("z", null, PageRequest.of(0, 10))));
+        assertTrue(participantSearchServices.search("stale", null, PageRequest.of(0, 10)).getContent().isEmpty());
+    }
+
+    private void index(int idPart, String nom, String prenom, Tache tache) {
+        participantSearchServices.index(new Participant(idPart, nom, prenom, tache, null));
+    }
+
+    private static List<Integer> ids(Slice<ParticipantDTO> slice) {
+        List<Integer> ids = new ArrayList<>();
+        for (ParticipantDTO participant : slice.getContent()) {
+            ids.add(participant.getIdPart());
+        }
+        return ids;
+    }
+}
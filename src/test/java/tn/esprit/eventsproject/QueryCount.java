@@ -0,0 +1,109 @@
+package tn.esprit.eventsproject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * SQL statements and entity rows seen by Hibernate on one thread while a block runs. Usage:
+ * <pre>
+ * QueryCount.measure(() -> eventServices.addParticipant(dto)).selectsAtMost(1).inserts(1).updates(0);
+ * </pre>
+ */
+public class QueryCount {
+    private static final ThreadLocal<QueryCount> CURRENT = new ThreadLocal<>();
+
+    private final List<String> statements = new ArrayList<>();
+    private int selects;
+    private int inserts;
+    private int updates;
+    private int deletes;
+    int rowsLoaded;
+    int rowsInserted;
+    int rowsUpdated;
+    int rowsDeleted;
+
+    public static QueryCount measure(Runnable block) {
+        QueryCount count = new QueryCount();
+        QueryCount previous = CURRENT.get();
+        CURRENT.set(count);
+        try {
+            block.run();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+        return count;
+    }
+
+    // Outside measure() statements are counted into a throwaway instance
+    static QueryCount current() {
+        QueryCount count = CURRENT.get();
+        return count == null ? new QueryCount() : count;
+    }
+
+    void statement(String sql) {
+        statements.add(sql);
+        String verb = sql.trim().toLowerCase(Locale.ROOT);
+        if (verb.startsWith("select")) {
+            selects++;
+        } else if (verb.startsWith("insert")) {
+            inserts++;
+        } else if (verb.startsWith("update")) {
+            updates++;
+        } else if (verb.startsWith("delete")) {
+            deletes++;
+        }
+    }
+
+    public QueryCount selectsAtMost(int max) {
+        assertTrue(selects <= max, "Expected at most " + max + " selects but got " + selects + describe());
+        return this;
+    }
+
+    public QueryCount inserts(int expected) {
+        assertEquals(expected, inserts, "Unexpected number of inserts" + describe());
+        return this;
+    }
+
+    public QueryCount updates(int expected) {
+        assertEquals(expected, updates, "Unexpected number of updates" + describe());
+        return this;
+    }
+
+    public QueryCount deletes(int expected) {
+        assertEquals(expected, deletes, "Unexpected number of deletes" + describe());
+        return this;
+    }
+
+    public QueryCount statementsAtMost(int max) {
+        assertTrue(statements.size() <= max, "Expected at most " + max + " statements but got " + statements.size() + describe());
+        return this;
+    }
+
+    public QueryCount rowsLoadedAtMost(int max) {
+        assertTrue(rowsLoaded <= max, "Expected at most " + max + " rows loaded but got " + rowsLoaded + describe());
+        return this;
+    }
+
+    public QueryCount rowsWritten(int inserted, int updated, int deleted) {
+        assertEquals(inserted, rowsInserted, "Unexpected number of rows inserted" + describe());
+        assertEquals(updated, rowsUpdated, "Unexpected number of rows updated" + describe());
+        assertEquals(deleted, rowsDeleted, "Unexpected number of rows deleted" + describe());
+        return this;
+    }
+
+    private String describe() {
+        StringBuilder description = new StringBuilder(":");
+        for (String sql : statements) {
+            description.append("\n  ").append(sql);
+        }
+        return description.toString();
+    }
+}
@@ -0,0 +1,44 @@
+package tn.esprit.eventsproject;
+
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+
+/**
+ * Hibernate interceptor feeding {@link QueryCount}: every prepared statement and every entity row loaded,
+ * inserted, updated or deleted is counted for the calling thread only, so scheduled jobs running
+ * meanwhile never leak into a measurement. Registered by the "it" profile.
+ */
+public class QueryCountInterceptor extends EmptyInterceptor {
+
+    @Override
+    public String onPrepareStatement(String sql) {
+        QueryCount.current().statement(sql);
+        return sql;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) {
+        QueryCount.current().rowsLoaded++;
+        return false;
+    }
+
+    @Override
+    public boolean onSave(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) {
+        QueryCount.current().rowsInserted++;
+        return false;
+    }
+
+    @Override
+    public boolean onFlushDirty(Object entity, Serializable id, Object[] currentState, Object[] previousState,
+                                String[] propertyNames, Type[] types) {
+        QueryCount.current().rowsUpdated++;
+        return false;
+    }
+
+    @Override
+    public void onDelete(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) {
+        QueryCount.current().rowsDeleted++;
+    }
+}
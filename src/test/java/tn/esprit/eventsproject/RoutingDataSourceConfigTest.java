@@ -0,0 +1,61 @@
+package tn.esprit.eventsproject;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Routing enabled over two H2 databases: the pools are beans, timed per endpoint, metered and closed with the context
+class RoutingDataSourceConfigTest {
+
+    @Test
+    void testPools_AreTimedMeteredAndClosedWithTheContext() throws SQLException {
+        HikariDataSource primary;
+        HikariDataSource replica;
+        try (ConfigurableApplicationContext context = start()) {
+            MeterRegistry registry = context.getBean(MeterRegistry.class);
+            primary = context.getBean("primaryDataSource", DataSource.class).unwrap(HikariDataSource.class);
+            replica = context.getBean("replicaDataSource0", DataSource.class).unwrap(HikariDataSource.class);
+            assertEquals("events-primary", primary.getPoolName());
+            assertEquals("events-replica-0", replica.getPoolName());
+
+            new JdbcTemplate(context.getBean(DataSource.class)).queryForObject("SELECT 1", Integer.class);
+            new JdbcTemplate(context.getBean("replicaDataSource0", DataSource.class)).queryForObject("SELECT 1", Integer.class);
+
+            // Checkouts are timed on the pools themselves, never on the lazy proxy in front of them
+            Timer acquire = registry.find("datasource.connection.acquire").tag("datasource", "primaryDataSource").timer();
+            assertNotNull(acquire);
+            assertTrue(acquire.count() > 0);
+            assertNull(registry.find("datasource.connection.acquire").tag("datasource", "dataSource").timer());
+            assertNotNull(registry.find("hikaricp.connections").tag("pool", "events-primary").gauge());
+            assertNotNull(registry.find("hikaricp.connections").tag("pool", "events-replica-0").gauge());
+            assertFalse(primary.isClosed());
+            assertFalse(replica.isClosed());
+        }
+
+        assertTrue(primary.isClosed());
+        assertTrue(replica.isClosed());
+    }
+
+    private static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(EventsProjectApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("it")
+                // Arguments, since builder properties are only defaults under application.properties
+                .run("--spring.datasource.url=jdbc:h2:mem:routing_it;DB_CLOSE_DELAY=-1",
+                        "--datasource.routing.enabled=true",
+                        "--datasource.routing.replicas[0].url=jdbc:h2:mem:routing_it_replica;DB_CLOSE_DELAY=-1",
+                        "--datasource.routing.replicas[0].username=sa",
+                        "--datasource.routing.replicas[0].password=",
+                        "--datasource.routing.lag-query=SELECT 0 AS Seconds_Behind_Source");
+    }
+}
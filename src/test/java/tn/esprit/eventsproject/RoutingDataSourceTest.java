@@ -0,0 +1,83 @@
+package tn.esprit.eventsproject;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tn.esprit.eventsproject.config.RoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Two embedded H2 databases standing in for the primary and one replica
+class RoutingDataSourceTest {
+    private SimpleMeterRegistry registry;
+    private RoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        routingDataSource = new RoutingDataSource(primary, Collections.singletonList(replica), 5, registry);
+        jdbcTemplate = new JdbcTemplate(routingDataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RoutingDataSource.setReplicaRead(false);
+    }
+
+    @Test
+    void testWritesAndUnmarkedReadsGoToPrimary() {
+        routingDataSource.updateLag("replica-0", 0d);
+
+        assertEquals("primary", currentNode());
+        assertEquals(1.0, registry.counter("datasource.routing.decisions", "target", "primary").count());
+    }
+
+    @Test
+    void testReplicaReadGoesToReplicaWithinLagTolerance() {
+        routingDataSource.updateLag("replica-0", 2d);
+        RoutingDataSource.setReplicaRead(true);
+
+        assertEquals("replica", currentNode());
+        assertEquals(1.0, registry.counter("datasource.routing.decisions", "target", "replica-0").count());
+    }
+
+    @Test
+    void testReplicaReadFallsBackToPrimaryWhenReplicaLags() {
+        routingDataSource.updateLag("replica-0", 30d);
+        RoutingDataSource.setReplicaRead(true);
+
+        assertEquals("primary", currentNode());
+        assertEquals(1.0, registry.counter("datasource.routing.fallbacks").count());
+    }
+
+    @Test
+    void testReplicaReadFallsBackToPrimaryWhenLagUnknown() {
+        routingDataSource.updateLag("replica-0", null);
+        RoutingDataSource.setReplicaRead(true);
+
+        assertEquals("primary", currentNode());
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT NAME FROM ROUTING_NODE", String.class);
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing_" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate setup = new JdbcTemplate(dataSource);
+        setup.execute("CREATE TABLE IF NOT EXISTS ROUTING_NODE (NAME VARCHAR(20))");
+        setup.execute("DELETE FROM ROUTING_NODE");
+        setup.update("INSERT INTO ROUTING_NODE VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,137 @@
+package tn.esprit.eventsproject;
+
+import org.junit.jupiter.api.Test;
+import tn.esprit.eventsproject.services.StripedCounter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Many threads reserving from the same stock: what is handed out never exceeds the capacity
+class StripedCounterTest {
+    private static final int THREADS = 32;
+
+    @Test
+    void testStripes_SmallestPowerOfTwoHoldingTheRequestedCount() {
+        int[][] expected = {{0, 1}, {1, 1}, {2, 2}, {3, 4}, {4, 4}, {5, 8}, {16, 16}, {17, 32}};
+        for (int[] pair : expected) {
+            StripedCounter counter = new StripedCounter(pair[0], 100);
+            assertEquals(pair[1], counter.getStripes(), "stripes for " + pair[0]);
+            assertEquals(100, counter.available());
+        }
+    }
+
+    @Test
+    void testTryAcquire_SingleStripeRefusesOverCapacity() {
+        StripedCounter counter = new StripedCounter(1, 10);
+
+        assertTrue(counter.tryAcquire(7));
+        assertFalse(counter.tryAcquire(4));
+        assertTrue(counter.tryAcquire(3));
+        assertEquals(0, counter.available());
+    }
+
+    @Test
+    void testTryAcquire_GathersAcrossStripes() {
+        // 10 spread over 8 stripes: no single stripe holds 10
+        StripedCounter counter = new StripedCounter(8, 10);
+
+        assertTrue(counter.tryAcquire(10));
+        assertFalse(counter.tryAcquire(1));
+        counter.release(4);
+        assertTrue(counter.tryAcquire(4));
+        assertEquals(0, counter.available());
+    }
+
+    @Test
+    void testTryAcquire_NegativeAvailableAfterCapacityCut() {
+        StripedCounter counter = new StripedCounter(4, 10);
+        assertTrue(counter.tryAcquire(8));
+
+        // Capacity lowered from 10 to 5 while 8 are reserved
+        counter.release(-5);
+
+        assertEquals(-3, counter.available());
+        assertFalse(counter.tryAcquire(1));
+        counter.release(8);
+        assertEquals(5, counter.available());
+    }
+
+    @Test
+    void testConcurrentReservations_NeverOversell() throws Exception {
+        long capacity = 100_000;
+        StripedCounter counter = new StripedCounter(16, capacity);
+        AtomicLong granted = new AtomicLong();
+
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            // Keep asking until even a single unit is refused
+            while (true) {
+                int quantite = 1 + random.nextInt(8);
+                if (counter.tryAcquire(quantite)) {
+                    granted.addAndGet(quantite);
+                } else if (quantite == 1) {
+                    return;
+                }
+            }
+        });
+
+        assertEquals(capacity, granted.get());
+        assertEquals(0, counter.available());
+    }
+
+    @Test
+    void testConcurrentReserveAndRelease_TotalIsConserved() throws Exception {
+        long capacity = 500;
+        StripedCounter counter = new StripedCounter(16, capacity);
+        AtomicLong held = new AtomicLong();
+        AtomicLong maxHeld = new AtomicLong();
+
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            List<Integer> mine = new ArrayList<>();
+            for (int i = 0; i < 20_000; i++) {
+                if (mine.isEmpty() || random.nextBoolean()) {
+                    int quantite = 1 + random.nextInt(20);
+                    if (counter.tryAcquire(quantite)) {
+                        mine.add(quantite);
+                        maxHeld.accumulateAndGet(held.addAndGet(quantite), Math::max);
+                    }
+                } else {
+                    int quantite = mine.remove(mine.size() - 1);
+                    held.addAndGet(-quantite);
+                    counter.release(quantite);
+                }
+            }
+            for (int quantite : mine) {
+                held.addAndGet(-quantite);
+                counter.release(quantite);
+            }
+        });
+
+        assertTrue(maxHeld.get() <= capacity, "Oversold: " + maxHeld.get() + " held for a capacity of " + capacity);
+        assertEquals(0, held.get());
+        assertEquals(capacity, counter.available());
+    }
+
+    private static void runConcurrently(Runnable task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                task.run();
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,143 @@
+package tn.esprit.eventsproject.loadtest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import tn.esprit.eventsproject.services.IAnalyticsServices;
+import tn.esprit.eventsproject.services.IParticipantSearchServices;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Boots the application on an embedded database, loads synthetic data and replays a concurrent workload.
+ * Excluded from the default build; run with: mvn test -Pload-test [-Dloadtest.participants=1000000 ...]
+ * Fails on any server error and when fewer than loadtest.min-success of an endpoint's requests got a 2xx.
+ * Admission control is off so the limiter's 503s are not measured as throughput; -Dadmission.enabled=true
+ * (with a lower loadtest.min-success) measures load shedding instead.
+ * To compare execution modes, make each connection checkout block like a remote database and give the pool
+ * more connections than Tomcat has threads, then run once as is and once with -Dexecution.mode=virtual on
+ * a JDK 21+: -Dloadtest.clients=1000 -Dloadtest.db-latency-ms=50 -Dspring.datasource.hikari.maximum-pool-size=400
+ * Connection checkout waits are reported per endpoint from the datasource.connection.acquire timer. To see them
+ * under the prod pool sizing, pass its defaults: -Dloadtest.db-latency-ms=5 -Dspring.datasource.hikari.minimum-idle=20
+ * -Dspring.datasource.hikari.connection-timeout=3000 -Dserver.tomcat.threads.max=50
+ */
+@Slf4j
+@Tag("load")
+@ActiveProfiles("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class EventLoadTest {
+    private static final int PARTICIPANTS = Integer.getInteger("loadtest.participants", 20_000);
+    private static final int EVENTS = Integer.getInteger("loadtest.events", 5_000);
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 32);
+    private static final long DURATION_MS = Long.getLong("loadtest.duration-ms", 30_000L);
+    private static final double MIN_SUCCESS = Double.parseDouble(System.getProperty("loadtest.min-success", "0.95"));
+    private static final long DB_LATENCY_MS = Long.getLong("loadtest.db-latency-ms", 0L);
+
+    @LocalServerPort
+    private int port;
+    @Value("${execution.mode}")
+    private String executionMode;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private IAnalyticsServices analyticsServices;
+    @Autowired
+    private IParticipantSearchServices participantSearchServices;
+
+    @Test
+    void testMixedWorkload() throws InterruptedException {
+        new SyntheticDataGenerator(dataSource, 42L).generate(PARTICIPANTS, EVENTS);
+        // Bulk rows bypass JPA, so the in-memory views are rebuilt from the database
+        analyticsServices.rebuild();
+        participantSearchServices.rebuild();
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        WorkloadDriver driver = new WorkloadDriver("http://127.0.0.1:" + port + "/events", PARTICIPANTS, EVENTS, recorder);
+        long elapsed = driver.run(CLIENTS, DURATION_MS);
+
+        log.info("Load test with " + CLIENTS + " clients, execution mode " + executionMode + ", " + DB_LATENCY_MS
+                + " ms simulated database latency:\n" + recorder.report(elapsed)
+                + "connection acquire, as timed by the application:\n" + acquireReport());
+        // Percentiles only mean something if the requests behind them succeeded
+        for (String endpoint : WorkloadDriver.ENDPOINTS) {
+            long count = recorder.count(endpoint);
+            long succeeded = recorder.count(endpoint, 200, 299);
+            assertTrue(count > 0, endpoint + " was never called");
+            assertEquals(0, recorder.count(endpoint, 0, 0), endpoint + " had requests without a usable response");
+            assertEquals(0, recorder.count(endpoint, 500, 502) + recorder.count(endpoint, 504, 599),
+                    endpoint + " had server errors");
+            assertTrue(succeeded >= MIN_SUCCESS * count,
+                    endpoint + ": only " + succeeded + " of " + count + " requests succeeded");
+        }
+    }
+
+    // Percentiles of every datasource.connection.acquire timer, one line per endpoint and pool
+    private String acquireReport() {
+        Map<String, HistogramSnapshot> snapshots = new TreeMap<>();
+        for (Timer timer : meterRegistry.find("datasource.connection.acquire").timers()) {
+            snapshots.put(timer.getId().getTag("uri") + " " + timer.getId().getTag("datasource"), timer.takeSnapshot());
+        }
+        StringBuilder report = new StringBuilder(String.format("%-48s %8s %9s %9s %9s %9s%n",
+                "endpoint datasource", "count", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (Map.Entry<String, HistogramSnapshot> entry : snapshots.entrySet()) {
+            HistogramSnapshot snapshot = entry.getValue();
+            report.append(String.format("%-48s %8d", entry.getKey(), snapshot.count()));
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                report.append(String.format(" %9.2f", percentile.value(TimeUnit.MILLISECONDS)));
+            }
+            report.append(String.format(" %9.2f%n", snapshot.max(TimeUnit.MILLISECONDS)));
+        }
+        return report.toString();
+    }
+
+    // H2 in memory never blocks; this makes each checkout wait like a round trip to a remote database
+    @TestConfiguration
+    static class SimulatedLatencyConfig {
+        @Bean
+        static BeanPostProcessor simulatedDatabaseLatency() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (DB_LATENCY_MS <= 0 || !"dataSource".equals(beanName) || !(bean instanceof DataSource)) {
+                        return bean;
+                    }
+                    return new DelegatingDataSource((DataSource) bean) {
+                        @Override
+                        public Connection getConnection() throws SQLException {
+                            Connection connection = super.getConnection();
+                            try {
+                                Thread.sleep(DB_LATENCY_MS);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                            return connection;
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
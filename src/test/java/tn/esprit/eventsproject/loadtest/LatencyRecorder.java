@@ -0,0 +1,107 @@
+package tn.esprit.eventsproject.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects every response time per endpoint and reports throughput and latency percentiles.
+ */
+public class LatencyRecorder {
+    private final ConcurrentMap<String, Samples> samples = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, int status, long nanos) {
+        samples.computeIfAbsent(endpoint, e -> new Samples()).add(status, nanos);
+    }
+
+    public long count() {
+        long count = 0;
+        for (Samples endpoint : samples.values()) {
+            count += endpoint.size();
+        }
+        return count;
+    }
+
+    public long count(String endpoint, int status) {
+        Samples endpointSamples = samples.get(endpoint);
+        return endpointSamples == null ? 0 : endpointSamples.count(status);
+    }
+
+    public long count(String endpoint) {
+        Samples endpointSamples = samples.get(endpoint);
+        return endpointSamples == null ? 0 : endpointSamples.size();
+    }
+
+    // Responses with a status in [from, to]
+    public long count(String endpoint, int from, int to) {
+        Samples endpointSamples = samples.get(endpoint);
+        return endpointSamples == null ? 0 : endpointSamples.count(from, to);
+    }
+
+    public String report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        StringBuilder report = new StringBuilder(String.format("%-28s %8s %9s %9s %9s %9s %9s  %s%n",
+                "endpoint", "count", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "statuses"));
+        for (Map.Entry<String, Samples> entry : new TreeMap<>(samples).entrySet()) {
+            long[] sorted = entry.getValue().sorted();
+            report.append(String.format("%-28s %8d %9.1f %9.2f %9.2f %9.2f %9.2f  %s%n", entry.getKey(), sorted.length,
+                    sorted.length / seconds, millis(sorted, 0.50), millis(sorted, 0.95), millis(sorted, 0.99),
+                    millis(sorted, 1.0), entry.getValue().statuses()));
+        }
+        report.append(String.format("total %d requests in %.1f s, %.1f req/s%n", count(), seconds, count() / seconds));
+        return report.toString();
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static final class Samples {
+        private long[] nanos = new long[1024];
+        private int size;
+        private final Map<Integer, Long> statuses = new TreeMap<>();
+
+        private synchronized void add(int status, long latency) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = latency;
+            statuses.merge(status, 1L, Long::sum);
+        }
+
+        private synchronized int size() {
+            return size;
+        }
+
+        private synchronized long count(int status) {
+            return statuses.getOrDefault(status, 0L);
+        }
+
+        private synchronized long count(int from, int to) {
+            long count = 0;
+            for (Map.Entry<Integer, Long> entry : statuses.entrySet()) {
+                if (entry.getKey() >= from && entry.getKey() <= to) {
+                    count += entry.getValue();
+                }
+            }
+            return count;
+        }
+
+        private synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(nanos, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        private synchronized String statuses() {
+            return statuses.toString();
+        }
+    }
+}
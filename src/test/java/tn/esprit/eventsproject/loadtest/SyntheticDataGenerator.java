@@ -0,0 +1,128 @@
+package tn.esprit.eventsproject.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tn.esprit.eventsproject.entities.Tache;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Bulk-loads participants, events and logistics straight through JDBC batches into the tables Hibernate
+ * generated. Distributions are skewed like real traffic: a few very common names, mostly guests, most
+ * events small, most activity in the months around today. Seeded, so two runs load identical data.
+ */
+@Slf4j
+public class SyntheticDataGenerator {
+    private static final int BATCH = 5000;
+    private static final String[] NOMS = {"Tounsi", "Ben Ali", "Trabelsi", "Gharbi", "Jaziri", "Hammami", "Mejri",
+            "Ayari", "Dridi", "Sassi", "Khelifi", "Bouazizi", "Chebbi", "Mansouri", "Zouari", "Ferchichi"};
+    private static final String[] PRENOMS = {"Ahmed", "Mohamed", "Fatma", "Amira", "Youssef", "Sarra", "Ali", "Mariem",
+            "Omar", "Ines", "Hamza", "Nour", "Karim", "Rania", "Souheil", "Yasmine"};
+    private static final String[] LOGISTICS = {"Chaises", "Tables", "Sono", "Projecteur", "Buffet", "Tente",
+            "Eclairage", "Scene"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Random random;
+
+    public SyntheticDataGenerator(DataSource dataSource, long seed) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.random = new Random(seed);
+    }
+
+    public void generate(int participants, int events) {
+        long start = System.currentTimeMillis();
+        insertParticipants(participants);
+        int logistics = insertEvents(events, participants);
+        restartIdentity("participant", "id_part", participants + 1);
+        restartIdentity("event", "id_event", events + 1);
+        restartIdentity("logistics", "id_log", logistics + 1);
+        log.info("Generated " + participants + " participants, " + events + " events and " + logistics
+                + " logistics in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    private void insertParticipants(int participants) {
+        List<Object[]> rows = new ArrayList<>(BATCH);
+        for (int id = 1; id <= participants; id++) {
+            rows.add(new Object[]{id, NOMS[skewed(NOMS.length)], PRENOMS[skewed(PRENOMS.length)], tache().name()});
+            if (rows.size() == BATCH) {
+                flush("INSERT INTO participant (id_part, nom, prenom, tache) VALUES (?, ?, ?, ?)", rows);
+            }
+        }
+        flush("INSERT INTO participant (id_part, nom, prenom, tache) VALUES (?, ?, ?, ?)", rows);
+    }
+
+    private int insertEvents(int events, int participants) {
+        List<Object[]> eventRows = new ArrayList<>(BATCH);
+        List<Object[]> links = new ArrayList<>(BATCH);
+        List<Object[]> logisticsRows = new ArrayList<>(BATCH);
+        List<Object[]> eventLogistics = new ArrayList<>(BATCH);
+        LocalDate today = LocalDate.now();
+        int idLog = 0;
+        for (int id = 1; id <= events; id++) {
+            // Two years of history, one of future, weighted toward the next few months
+            LocalDate dateDebut = today.plusDays((long) (365 - Math.abs(random.nextGaussian()) * 300));
+            LocalDate dateFin = dateDebut.plusDays(random.nextInt(3));
+            eventRows.add(new Object[]{id, "Event-" + id, Date.valueOf(dateDebut), Date.valueOf(dateFin), 0f});
+            // Mostly small gatherings with a long tail of large ones
+            int size = Math.min(participants, 1 + (int) Math.exp(random.nextGaussian() + 2));
+            int first = 1 + random.nextInt(participants);
+            for (int i = 0; i < size; i++) {
+                links.add(new Object[]{1 + (first + i * 7919) % participants, id});
+            }
+            int items = random.nextInt(6);
+            for (int i = 0; i < items; i++) {
+                idLog++;
+                float prixUnit = (float) Math.round(Math.exp(random.nextGaussian() + 3) * 100) / 100;
+                logisticsRows.add(new Object[]{idLog, LOGISTICS[skewed(LOGISTICS.length)], random.nextInt(10) < 7,
+                        prixUnit, 1 + random.nextInt(50)});
+                eventLogistics.add(new Object[]{id, idLog});
+            }
+            if (eventRows.size() >= BATCH) {
+                flushEvents(eventRows, links, logisticsRows, eventLogistics);
+            }
+        }
+        flushEvents(eventRows, links, logisticsRows, eventLogistics);
+        return idLog;
+    }
+
+    private void flushEvents(List<Object[]> eventRows, List<Object[]> links, List<Object[]> logisticsRows,
+                             List<Object[]> eventLogistics) {
+        flush("INSERT INTO event (id_event, description, date_debut, date_fin, cout) VALUES (?, ?, ?, ?, ?)", eventRows);
+        flush("MERGE INTO participant_events (participants_id_part, events_id_event) VALUES (?, ?)", links);
+        flush("INSERT INTO logistics (id_log, description, reserve, prix_unit, quantite) VALUES (?, ?, ?, ?, ?)", logisticsRows);
+        flush("INSERT INTO event_logistics (event_id_event, logistics_id_log) VALUES (?, ?)", eventLogistics);
+    }
+
+    private void flush(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+            rows.clear();
+        }
+    }
+
+    // Rows were inserted with explicit ids, so the identity columns must continue after them
+    private void restartIdentity(String table, String column, int next) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN " + column + " RESTART WITH " + next);
+    }
+
+    // Roughly Zipf: index 0 is the most frequent value
+    private int skewed(int bound) {
+        return (int) Math.min(bound - 1, Math.floor(Math.pow(random.nextDouble(), 2.5) * bound));
+    }
+
+    private Tache tache() {
+        int roll = random.nextInt(100);
+        if (roll < 80) {
+            return Tache.INVITE;
+        }
+        if (roll < 90) {
+            return Tache.SERVEUR;
+        }
+        return roll < 96 ? Tache.ANIMATEUR : Tache.ORGANISATEUR;
+    }
+}
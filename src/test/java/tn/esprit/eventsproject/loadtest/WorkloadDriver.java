@@ -0,0 +1,140 @@
+package tn.esprit.eventsproject.loadtest;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives every EventRestController endpoint from concurrent clients with a read-heavy mix until the
+ * deadline, recording each response in a {@link LatencyRecorder}. Status 0 means no usable HTTP response.
+ */
+public class WorkloadDriver {
+    public static final String GET_LOGS = "GET getLogs";
+    public static final String ADD_PART = "POST addPart";
+    public static final String ADD_EVENT_PART = "POST addEvent/{id}";
+    public static final String ADD_EVENT = "POST addEvent";
+    public static final String ADD_AFFECT_LOG = "PUT addAffectLog";
+    public static final List<String> ENDPOINTS = Collections.unmodifiableList(
+            Arrays.asList(GET_LOGS, ADD_PART, ADD_EVENT_PART, ADD_EVENT, ADD_AFFECT_LOG));
+
+    private final String baseUrl;
+    private final int participants;
+    private final int events;
+    private final LatencyRecorder recorder;
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public WorkloadDriver(String baseUrl, int participants, int events, LatencyRecorder recorder) {
+        this.baseUrl = baseUrl;
+        this.participants = participants;
+        this.events = events;
+        this.recorder = recorder;
+        // Every status is a result to record, not an error to throw
+        restTemplate.setErrorHandler(new ResponseErrorHandler() {
+            @Override
+            public boolean hasError(ClientHttpResponse response) {
+                return false;
+            }
+
+            @Override
+            public void handleError(ClientHttpResponse response) {
+                // never called, hasError is always false
+            }
+        });
+    }
+
+    public long run(int clients, long durationMs) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(durationMs);
+        for (int i = 0; i < clients; i++) {
+            pool.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    step(ThreadLocalRandom.current());
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(durationMs + 60_000, TimeUnit.MILLISECONDS);
+        return System.nanoTime() - start;
+    }
+
+    private void step(Random random) {
+        int roll = random.nextInt(100);
+        if (roll < 40) {
+            LocalDate from = LocalDate.now().minusDays(random.nextInt(400));
+            call(GET_LOGS, HttpMethod.GET, "/event/getLogs/" + from + "/" + from.plusDays(7 + random.nextInt(60)), null);
+        } else if (roll < 60) {
+            call(ADD_PART, HttpMethod.POST, "/event/addPart", participant(random));
+        } else if (roll < 75) {
+            call(ADD_EVENT_PART, HttpMethod.POST, "/event/addEvent/" + (1 + random.nextInt(participants)), event(random, false));
+        } else if (roll < 85) {
+            call(ADD_EVENT, HttpMethod.POST, "/event/addEvent", event(random, true));
+        } else {
+            call(ADD_AFFECT_LOG, HttpMethod.PUT, "/event/addAffectLog/Event-" + (1 + random.nextInt(events)), logistics(random));
+        }
+    }
+
+    private void call(String endpoint, HttpMethod method, String path, Object body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        long start = System.nanoTime();
+        int status;
+        try {
+            status = restTemplate.exchange(baseUrl + path, method, new HttpEntity<>(body, headers), String.class)
+                    .getStatusCodeValue();
+        } catch (RestClientException e) {
+            // Connection failures and unreadable responses alike; a client must never die on one
+            status = 0;
+        }
+        recorder.record(endpoint, status, System.nanoTime() - start);
+    }
+
+    private Map<String, Object> participant(Random random) {
+        Map<String, Object> participant = new HashMap<>();
+        participant.put("nom", "Load" + sequence.incrementAndGet());
+        participant.put("prenom", "Client");
+        participant.put("tache", random.nextInt(10) < 8 ? "INVITE" : "SERVEUR");
+        return participant;
+    }
+
+    private Map<String, Object> event(Random random, boolean withParticipants) {
+        LocalDate dateDebut = LocalDate.now().plusDays(random.nextInt(180));
+        Map<String, Object> event = new HashMap<>();
+        event.put("description", "Load-" + sequence.incrementAndGet());
+        event.put("dateDebut", dateDebut.toString());
+        event.put("dateFin", dateDebut.plusDays(random.nextInt(3)).toString());
+        // Inline logistics do not cascade from Event, so they are only added through addAffectLog
+        event.put("logistics", Collections.emptyList());
+        if (withParticipants) {
+            List<Map<String, Object>> members = new ArrayList<>();
+            for (int i = 0; i < 1 + random.nextInt(5); i++) {
+                members.add(Collections.<String, Object>singletonMap("idPart", 1 + random.nextInt(participants)));
+            }
+            event.put("participants", members);
+        }
+        return event;
+    }
+
+    private static Map<String, Object> logistics(Random random) {
+        Map<String, Object> logistics = new HashMap<>();
+        logistics.put("description", "Chaises");
+        logistics.put("reserve", random.nextBoolean());
+        logistics.put("prixUnit", 5 + random.nextInt(50));
+        logistics.put("quantite", 1 + random.nextInt(20));
+        return logistics;
+    }
+}